@@ -0,0 +1,155 @@
+package com.wissen.ims.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Runs candidate CSV imports off the request thread. The pool size is the number of imports
+     * allowed to run at once; further uploads wait in a bounded queue and are refused once it is full.
+     */
+    @Bean(name = "csvImportExecutor")
+    public ThreadPoolTaskExecutor csvImportExecutor(
+            @Value("${csv.import.max-concurrent-jobs:4}") int maxConcurrentJobs,
+            @Value("${csv.import.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentJobs);
+        executor.setMaxPoolSize(maxConcurrentJobs);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs streaming responses such as CSV exports. Declaring our own executors switches off Spring Boot's
+     * default one, so MVC async processing would otherwise fall back to an unbounded thread-per-request executor.
+     */
+    @Bean(name = "mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(
+            @Value("${export.max-concurrent:8}") int maxConcurrent,
+            @Value("${export.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Renders document previews. Rendering a PDF page or decoding a photo is CPU- and memory-heavy, so only a
+     * couple run at once; the queue absorbs bursts of uploads and previews beyond it are rendered on demand.
+     */
+    @Bean(name = "thumbnailExecutor")
+    public ThreadPoolTaskExecutor thumbnailExecutor(
+            @Value("${thumbnail.max-concurrent:2}") int maxConcurrent,
+            @Value("${thumbnail.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("thumbnail-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs virus scans of new uploads. Scans mostly wait on the scanner daemon, so a few run at once; a scan that
+     * doesn't fit in the queue stays pending and is picked up by the periodic retry.
+     */
+    @Bean(name = "scanExecutor")
+    public ThreadPoolTaskExecutor scanExecutor(
+            @Value("${scan.max-concurrent:4}") int maxConcurrent,
+            @Value("${scan.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("scan-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Renders and mails offer letters claimed from the dispatch outbox. The poller only claims what fits, so the
+     * queue stays short; the SMTP connections the workers send over come from the shared mail pool.
+     */
+    @Bean(name = "offerDispatchExecutor")
+    public ThreadPoolTaskExecutor offerDispatchExecutor(
+            @Value("${offer.dispatch.max-concurrent:4}") int maxConcurrent) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setThreadNamePrefix("offer-dispatch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Renders offer letter PDFs for the dispatch workers, which hand a whole send batch over at once. Rendering
+     * is CPU-bound, so the pool defaults to one thread per core; when the queue is full the submitting worker
+     * renders the letter itself instead of failing it.
+     */
+    @Bean(name = "offerRenderExecutor")
+    public ThreadPoolTaskExecutor offerRenderExecutor(
+            @Value("${offer.render.threads:0}") int threads,
+            @Value("${offer.render.queue-capacity:100}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("offer-render-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the storage maintenance passes (orphaned-file collection, document archival), which take minutes and
+     * pause on purpose, so they tie up neither the scheduler threads nor an admin's request. A pass that is
+     * already queued or running isn't queued again.
+     */
+    @Bean(name = "storageMaintenanceExecutor")
+    public ThreadPoolTaskExecutor storageMaintenanceExecutor(
+            @Value("${storage.maintenance.max-concurrent:2}") int maxConcurrent) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setThreadNamePrefix("storage-maintenance-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Sends the emails claimed from the mail outbox. Each worker holds one pooled SMTP connection while it sends,
+     * so there is no point in more workers than {@code mail.pool.size}.
+     */
+    @Bean(name = "mailOutboxExecutor")
+    public ThreadPoolTaskExecutor mailOutboxExecutor(
+            @Value("${mail.outbox.max-concurrent:2}") int maxConcurrent) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setThreadNamePrefix("mail-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wissen.ims.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wissen.ims.dto.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Locale;
+
+/**
+ * Refuses a multipart upload whose declared Content-Length is over the limit before its body is read.
+ * Multipart parsing is lazy (see {@code spring.servlet.multipart.resolve-lazily}), so this runs ahead of it
+ * and an oversized file costs one header rather than megabytes of spooling.
+ */
+@Component
+public class UploadLimitInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.servlet.multipart.max-request-size:10MB}")
+    private DataSize maxRequestSize;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        String contentType = request.getContentType();
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/")
+                || request.getContentLengthLong() <= maxRequestSize.toBytes()) {
+            return true;
+        }
+
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Upload is larger than the " + maxRequestSize.toMegabytes() + " MB limit"));
+        return false;
+    }
+}
@@ -1,27 +1,35 @@
 package com.wissen.ims.controller;
 
 import com.wissen.ims.dto.ApiResponse;
-import com.wissen.ims.dto.BulkUploadResponse;
+import com.wissen.ims.dto.BulkUploadJobStatus;
 import com.wissen.ims.model.Candidate;
+import com.wissen.ims.model.CandidateImportCheckpoint;
 import com.wissen.ims.model.Intern;
+import com.wissen.ims.service.BulkUploadJobService;
 import com.wissen.ims.service.CandidateService;
-import com.wissen.ims.service.CSVService;
+import com.wissen.ims.service.ExportService;
+import com.wissen.ims.storage.InspectedUpload;
+import com.wissen.ims.storage.ObjectStorage;
+import com.wissen.ims.storage.UploadInspector;
+import com.wissen.ims.storage.UploadRejectedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -31,16 +39,33 @@ import java.util.UUID;
 @RequestMapping("/candidates")
 public class CandidateController {
 
+    // Resumes are stored under this key prefix; Candidate.resumeUrl holds just the filename
+    private static final String RESUME_PREFIX = "resumes/";
+
     @Autowired
     private CandidateService candidateService;
 
     @Autowired
-    private CSVService csvService;
+    private BulkUploadJobService bulkUploadJobService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private ObjectStorage objectStorage;
 
+    @Autowired
+    private UploadInspector uploadInspector;
+
+    /** Paged list of summaries, see {@link ListResponses}; fetch {@code /{id}} for the full record. */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Candidate>>> getAllCandidates() {
-        List<Candidate> candidates = candidateService.getAllCandidates();
-        return ResponseEntity.ok(ApiResponse.success(candidates));
+    public ResponseEntity<ApiResponse<?>> getAllCandidates(
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            @RequestParam(required = false) Long cursor,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ListResponses.list(unpaged, cursor, pageable,
+                candidateService::getAllCandidates, candidateService::getCandidatesAfter,
+                candidateService::getCandidatesPage);
     }
 
     @GetMapping("/{id}")
@@ -84,6 +109,29 @@ public class CandidateController {
         return ResponseEntity.ok(ApiResponse.success(candidates));
     }
 
+    /**
+     * Streams matching candidates as CSV. Filters are optional and combine with AND.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCandidates(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long collegeId,
+            @RequestParam(required = false) String term) {
+        Candidate.CandidateStatus candidateStatus;
+        try {
+            candidateStatus = status == null ? null : Candidate.CandidateStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> exportService.exportCandidates(candidateStatus, collegeId, term, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"candidates_" + LocalDate.now() + ".csv\"")
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<Candidate>> createCandidate(@RequestBody Candidate candidate) {
         try {
@@ -154,33 +202,24 @@ public class CandidateController {
             @PathVariable Long id,
             @RequestParam("file") MultipartFile file) {
         try {
-            if (file.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(ApiResponse.error("Please select a file to upload"));
-            }
+            // Check the real file type before storing anything; the extension follows from it
+            String newFilename;
+            try (InspectedUpload upload = uploadInspector.inspect(file, UploadInspector.RESUME_TYPES)) {
+                newFilename = "candidate_" + id + upload.getExtension();
 
-            // Create upload directory if it doesn't exist
-            String uploadDir = "uploads/resumes/";
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
+                // Save file
+                objectStorage.put(RESUME_PREFIX + newFilename, upload.getContent(), upload.getMediaType());
             }
 
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String newFilename = "candidate_" + id + fileExtension;
-            
-            // Save file
-            Path filePath = uploadPath.resolve(newFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
             // Update candidate with resume filename
             Candidate candidate = candidateService.getCandidateById(id);
             candidate.setResumeUrl(newFilename);
             Candidate updatedCandidate = candidateService.updateCandidate(id, candidate);
 
             return ResponseEntity.ok(ApiResponse.success(updatedCandidate));
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to upload file: " + e.getMessage()));
@@ -199,27 +238,12 @@ public class CandidateController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
             }
 
-            // Get the file path using the stored filename
-            String uploadDir = "uploads/resumes/";
-            Path filePath = Paths.get(uploadDir).resolve(candidate.getResumeUrl()).normalize();
-            
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists() && resource.isReadable()) {
-                // Determine content type
-                String contentType = Files.probeContentType(filePath);
-                if (contentType == null) {
-                    contentType = "application/octet-stream";
-                }
-                
-                return ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(contentType))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, 
-                                "inline; filename=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-            }
+            // Determine content type from the stored filename
+            MediaType contentType = MediaTypeFactory.getMediaType(candidate.getResumeUrl())
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+            return FileResponses.serve(objectStorage.get(RESUME_PREFIX + candidate.getResumeUrl()), null, contentType,
+                    "inline; filename=\"" + candidate.getResumeUrl() + "\"");
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -227,10 +251,11 @@ public class CandidateController {
     }
 
     @PostMapping("/bulk-upload")
-    public ResponseEntity<ApiResponse<BulkUploadResponse>> bulkUploadCandidates(
+    public ResponseEntity<ApiResponse<BulkUploadJobStatus>> bulkUploadCandidates(
             @RequestParam("file") MultipartFile file,
             @RequestParam("collegeId") Long collegeId,
-            @RequestParam("collegeName") String collegeName) {
+            @RequestParam("collegeName") String collegeName,
+            @RequestParam(value = "mode", defaultValue = "INSERT") String mode) {
         
         try {
             // Validate file
@@ -239,25 +264,45 @@ public class CandidateController {
                         .body(ApiResponse.error("Please upload a CSV file"));
             }
             
-            if (!file.getOriginalFilename().endsWith(".csv")) {
+            if (file.getOriginalFilename() == null || !file.getOriginalFilename().endsWith(".csv")) {
                 return ResponseEntity.badRequest()
                         .body(ApiResponse.error("Only CSV files are allowed"));
             }
             
-            BulkUploadResponse response = csvService.processCandidateCSV(file, collegeId, collegeName);
-            
-            // Always return the response with details, use appropriate status code
-            if (response.getSuccessCount() > 0) {
-                return ResponseEntity.ok(ApiResponse.success(response));
-            } else {
-                // Even if all failed, return 200 with the detailed response
-                return ResponseEntity.ok(ApiResponse.success(response));
+            CandidateImportCheckpoint.ImportMode importMode;
+            try {
+                importMode = CandidateImportCheckpoint.ImportMode.valueOf(mode.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Invalid mode: " + mode + ", expected INSERT or UPSERT"));
             }
+
+            // The import runs in the background; poll /bulk-upload/{jobId} for progress
+            BulkUploadJobStatus job = bulkUploadJobService.submit(file, collegeId, collegeName, importMode);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Bulk upload queued", job));
             
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Too many bulk uploads in progress, please try again shortly"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to process CSV file: " + e.getMessage()));
         }
     }
-}
 
+    @GetMapping("/bulk-upload/{jobId}")
+    public ResponseEntity<ApiResponse<BulkUploadJobStatus>> getBulkUploadStatus(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") int errorPage,
+            @RequestParam(defaultValue = "50") int errorPageSize) {
+        try {
+            BulkUploadJobStatus status = bulkUploadJobService.getStatus(jobId, Math.max(0, errorPage),
+                    Math.min(Math.max(1, errorPageSize), 500));
+            return ResponseEntity.ok(ApiResponse.success(status));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.wissen.ims.dto.ApiResponse;
 import com.wissen.ims.model.College;
 import com.wissen.ims.service.CollegeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,10 +20,14 @@ public class CollegeController {
     @Autowired
     private CollegeService collegeService;
 
+    /** Paged list, see {@link ListResponses}. */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<College>>> getAllColleges() {
-        List<College> colleges = collegeService.getAllColleges();
-        return ResponseEntity.ok(ApiResponse.success(colleges));
+    public ResponseEntity<ApiResponse<?>> getAllColleges(
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            @RequestParam(required = false) Long cursor,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ListResponses.list(unpaged, cursor, pageable,
+                collegeService::getAllColleges, collegeService::getCollegesAfter, collegeService::getCollegesPage);
     }
 
     @GetMapping("/{id}")
@@ -1,20 +1,13 @@
 package com.wissen.ims.controller;
 
 import com.wissen.ims.dto.ApiResponse;
-import com.wissen.ims.model.Candidate;
-import com.wissen.ims.model.Intern;
-import com.wissen.ims.model.Offer;
-import com.wissen.ims.service.CandidateService;
-import com.wissen.ims.service.CollegeService;
-import com.wissen.ims.service.InternService;
-import com.wissen.ims.service.OfferService;
+import com.wissen.ims.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -22,42 +15,10 @@ import java.util.Map;
 public class DashboardController {
 
     @Autowired
-    private CollegeService collegeService;
-
-    @Autowired
-    private InternService internService;
-
-    @Autowired
-    private OfferService offerService;
-
-    @Autowired
-    private CandidateService candidateService;
+    private DashboardService dashboardService;
 
     @GetMapping("/stats")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
-
-        // College stats
-        stats.put("totalColleges", collegeService.getAllColleges().size());
-
-        // Candidate stats (applicants not yet converted to interns)
-        stats.put("totalCandidates", candidateService.getAllCandidates().size());
-        stats.put("appliedCandidates", candidateService.countByStatus(Candidate.CandidateStatus.APPLIED));
-        stats.put("interviewingCandidates", candidateService.countByStatus(Candidate.CandidateStatus.INTERVIEWING));
-        stats.put("selectedCandidates", candidateService.countByStatus(Candidate.CandidateStatus.SELECTED));
-
-        // Intern stats (selected candidates who have joined)
-        stats.put("totalInterns", internService.getAllInterns().size());
-        stats.put("activeInterns", internService.countByStatus(Intern.InternStatus.ACTIVE));
-        stats.put("onboardingInterns", internService.countByStatus(Intern.InternStatus.ONBOARDING));
-        stats.put("documentPending", internService.countByStatus(Intern.InternStatus.DOCUMENT_PENDING));
-
-        // Offer stats
-        stats.put("totalOffers", offerService.getAllOffers().size());
-        stats.put("generatedOffers", offerService.countByStatus(Offer.OfferStatus.GENERATED));
-        stats.put("sentOffers", offerService.countByStatus(Offer.OfferStatus.SENT));
-        stats.put("acceptedOffers", offerService.countByStatus(Offer.OfferStatus.ACCEPTED));
-
-        return ResponseEntity.ok(ApiResponse.success(stats));
+        return ResponseEntity.ok(ApiResponse.success(dashboardService.getDashboardStats()));
     }
 }
@@ -1,22 +1,32 @@
 package com.wissen.ims.controller;
 
 import com.wissen.ims.dto.ApiResponse;
+import com.wissen.ims.dto.DocumentBatchRequest;
+import com.wissen.ims.dto.DocumentBatchResult;
+import com.wissen.ims.dto.InternSummary;
+import com.wissen.ims.dto.PageResponse;
 import com.wissen.ims.model.Document;
+import com.wissen.ims.service.DocumentChecklistService;
 import com.wissen.ims.service.DocumentService;
+import com.wissen.ims.service.ThumbnailService;
+import com.wissen.ims.storage.StorageKeys;
+import com.wissen.ims.storage.UploadRejectedException;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 
+@Slf4j
 @RestController
 @RequestMapping("/documents")
 public class DocumentController {
@@ -24,10 +34,31 @@ public class DocumentController {
     @Autowired
     private DocumentService documentService;
 
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private DocumentChecklistService checklistService;
+
+    /** Paged list of summaries, see {@link ListResponses}; fetch {@code /{id}} for the full record. */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Document>>> getAllDocuments() {
-        List<Document> documents = documentService.getAllDocuments();
-        return ResponseEntity.ok(ApiResponse.success(documents));
+    public ResponseEntity<ApiResponse<?>> getAllDocuments(
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            @RequestParam(required = false) Long cursor,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ListResponses.list(unpaged, cursor, pageable,
+                documentService::getAllDocuments, documentService::getDocumentsAfter,
+                documentService::getDocumentsPage);
+    }
+
+    /**
+     * Interns who have uploaded every required document and are waiting for verification, oldest first.
+     * Paged with {@code page} and {@code size}.
+     */
+    @GetMapping("/verification-queue")
+    public ResponseEntity<ApiResponse<PageResponse<InternSummary>>> getVerificationQueue(
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(ApiResponse.success(checklistService.getVerificationQueue(pageable)));
     }
 
     @GetMapping("/{id}")
@@ -72,6 +103,9 @@ public class DocumentController {
             Document document = documentService.uploadDocument(internId, name, label, icon, description, type, file);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success(document));
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
@@ -81,8 +115,7 @@ public class DocumentController {
     @PatchMapping("/{id}/verify")
     public ResponseEntity<ApiResponse<Document>> verifyDocument(@PathVariable Long id) {
         try {
-            // Get verifiedBy from request context or set default
-            String verifiedBy = "HR Manager"; // You can get this from authentication context
+            String verifiedBy = currentUser();
             Document document = documentService.verifyDocument(id, verifiedBy);
             return ResponseEntity.ok(ApiResponse.success(document));
         } catch (Exception e) {
@@ -102,7 +135,7 @@ public class DocumentController {
             @RequestBody(required = false) java.util.Map<String, String> requestBody) {
         try {
             String reason = requestBody != null ? requestBody.get("reason") : "Document rejected";
-            String verifiedBy = "HR Manager"; // You can get this from authentication context
+            String verifiedBy = currentUser();
             Document document = documentService.rejectDocument(id, reason, verifiedBy);
             return ResponseEntity.ok(ApiResponse.success(document));
         } catch (Exception e) {
@@ -118,49 +151,58 @@ public class DocumentController {
         return rejectDocument(id, requestBody);
     }
 
+    /**
+     * Verifies every listed document in one transaction; each affected intern's status is recomputed once.
+     */
+    @PatchMapping("/batch/verify")
+    public ResponseEntity<ApiResponse<DocumentBatchResult>> verifyDocuments(@RequestBody DocumentBatchRequest request) {
+        try {
+            String verifiedBy = currentUser();
+            DocumentBatchResult result = documentService.verifyDocuments(request.getDocumentIds(), verifiedBy);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PatchMapping("/batch/reject")
+    public ResponseEntity<ApiResponse<DocumentBatchResult>> rejectDocuments(@RequestBody DocumentBatchRequest request) {
+        try {
+            String reason = request.getReason() != null && !request.getReason().isBlank()
+                    ? request.getReason() : "Document rejected";
+            String verifiedBy = currentUser();
+            DocumentBatchResult result = documentService.rejectDocuments(request.getDocumentIds(), reason, verifiedBy);
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // Verifications are recorded against the signed-in user's email
+    private static String currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    // Files still being virus scanned, or that failed the scan, answer 409 Conflict
     @GetMapping("/{id}/download")
     public ResponseEntity<Resource> downloadDocument(@PathVariable Long id) {
         try {
             Document document = documentService.getDocumentById(id);
-            Path filePath = Paths.get(document.getFilePath());
-            
-            System.out.println("Attempting to download document ID: " + id);
-            System.out.println("File path from database: " + document.getFilePath());
-            System.out.println("File exists: " + filePath.toFile().exists());
-            System.out.println("File readable: " + filePath.toFile().canRead());
-            
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                // Get file extension from the stored file path
-                String fileName = filePath.getFileName().toString();
-                String extension = "";
-                int dotIndex = fileName.lastIndexOf('.');
-                if (dotIndex > 0) {
-                    extension = fileName.substring(dotIndex);
-                }
-                
-                // Create a friendly filename: DocumentName_Label.ext
-                String downloadFilename = document.getName() + "_" + 
-                    (document.getLabel() != null ? document.getLabel().replace(" ", "_") : "Document") + 
-                    extension;
-
-                System.out.println("Sending file with name: " + downloadFilename);
-                System.out.println("File size: " + resource.contentLength() + " bytes");
-
-                return ResponseEntity.ok()
-                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                        .header(HttpHeaders.CONTENT_DISPOSITION, 
-                                "attachment; filename=\"" + downloadFilename + "\"")
-                        .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(resource.contentLength()))
-                        .body(resource);
-            } else {
-                System.err.println("File not found or not readable at: " + filePath);
-                return ResponseEntity.notFound().build();
+            if (!document.passedScan()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
             }
+
+            // Create a friendly filename: DocumentName_Label.ext
+            String downloadFilename = document.getName() + "_" +
+                (document.getLabel() != null ? document.getLabel().replace(" ", "_") : "Document") +
+                StorageKeys.extensionOf(document.getFilePath());
+
+            return FileResponses.serve(documentService.getDocumentFile(document), document.getContentHash(),
+                    MediaType.APPLICATION_OCTET_STREAM, "attachment; filename=\"" + downloadFilename + "\"");
         } catch (Exception e) {
-            System.err.println("Error downloading document: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error downloading document {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
@@ -169,41 +211,54 @@ public class DocumentController {
     public ResponseEntity<Resource> viewDocument(@PathVariable Long id) {
         try {
             Document document = documentService.getDocumentById(id);
-            Path filePath = Paths.get(document.getFilePath());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() && resource.isReadable()) {
-                // Get file extension to determine content type
-                String fileName = filePath.getFileName().toString();
-                String extension = "";
-                int dotIndex = fileName.lastIndexOf('.');
-                if (dotIndex > 0) {
-                    extension = fileName.substring(dotIndex).toLowerCase();
-                }
-                
-                // Determine content type based on extension
-                MediaType contentType = MediaType.APPLICATION_OCTET_STREAM;
-                if (extension.equals(".pdf")) {
-                    contentType = MediaType.APPLICATION_PDF;
-                } else if (extension.equals(".jpg") || extension.equals(".jpeg")) {
-                    contentType = MediaType.IMAGE_JPEG;
-                } else if (extension.equals(".png")) {
-                    contentType = MediaType.IMAGE_PNG;
-                }
-                
-                // Create a friendly filename for inline display
-                String viewFilename = document.getName() + "_" + 
-                    (document.getLabel() != null ? document.getLabel().replace(" ", "_") : "Document") + 
-                    extension;
-
-                return ResponseEntity.ok()
-                        .contentType(contentType)
-                        .header(HttpHeaders.CONTENT_DISPOSITION, 
-                                "inline; filename=\"" + viewFilename + "\"")
-                        .body(resource);
-            } else {
+            if (!document.passedScan()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            String extension = StorageKeys.extensionOf(document.getFilePath());
+
+            // Determine content type based on extension
+            MediaType contentType = MediaType.APPLICATION_OCTET_STREAM;
+            if (extension.equals(".pdf")) {
+                contentType = MediaType.APPLICATION_PDF;
+            } else if (extension.equals(".jpg") || extension.equals(".jpeg")) {
+                contentType = MediaType.IMAGE_JPEG;
+            } else if (extension.equals(".png")) {
+                contentType = MediaType.IMAGE_PNG;
+            }
+
+            // Create a friendly filename for inline display
+            String viewFilename = document.getName() + "_" +
+                (document.getLabel() != null ? document.getLabel().replace(" ", "_") : "Document") +
+                extension;
+
+            return FileResponses.serve(documentService.getDocumentFile(document), document.getContentHash(),
+                    contentType, "inline; filename=\"" + viewFilename + "\"");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * A small PNG preview of the document. Previews are rendered in the background once the upload passes its
+     * virus scan; until one is ready this returns 404 (and queues it, for documents uploaded before previews existed).
+     */
+    @GetMapping("/{id}/thumbnail")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable Long id) {
+        try {
+            Document document = documentService.getDocumentById(id);
+            // Archived documents keep no preview, and files are only rendered once they pass their scan
+            if (document.isArchived() || !document.passedScan() || !thumbnailService.canRender(document.getFilePath())) {
                 return ResponseEntity.notFound().build();
             }
+
+            Resource thumbnail = thumbnailService.getThumbnail(document.getFilePath());
+            if (!thumbnail.exists()) {
+                thumbnailService.schedule(document.getFilePath());
+                return ResponseEntity.notFound().build();
+            }
+
+            return FileResponses.serve(thumbnail, null, MediaType.IMAGE_PNG,
+                    "inline; filename=\"" + document.getName() + "_thumbnail.png\"");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -0,0 +1,46 @@
+package com.wissen.ims.controller;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+
+/**
+ * Builds file download responses that carry validators. Spring MVC then answers a matching
+ * {@code If-None-Match}/{@code If-Modified-Since} with 304 and a {@code Range} request with 206 partial content,
+ * sending only the requested region of the file.
+ */
+final class FileResponses {
+
+    private FileResponses() {
+    }
+
+    /**
+     * @param etag a stable identifier for the file contents (e.g. its SHA-256), or null to derive a weaker one
+     *             from the file size and modification time
+     */
+    static ResponseEntity<Resource> serve(Resource file, String etag, MediaType contentType, String contentDisposition)
+            throws IOException {
+        if (!file.exists() || !file.isReadable()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long lastModified = file.lastModified();
+        if (etag == null) {
+            etag = Long.toHexString(file.contentLength()) + "-" + Long.toHexString(lastModified);
+        }
+
+        // no-cache still lets the browser keep the file; it just has to revalidate, which is a cheap 304
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(file);
+    }
+}
@@ -4,6 +4,9 @@ import com.wissen.ims.dto.ApiResponse;
 import com.wissen.ims.model.HiringRound;
 import com.wissen.ims.service.HiringRoundService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -17,10 +20,15 @@ public class HiringRoundController {
     @Autowired
     private HiringRoundService hiringRoundService;
 
+    /** Paged list, see {@link ListResponses}. */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<HiringRound>>> getAllHiringRounds() {
-        List<HiringRound> hiringRounds = hiringRoundService.getAllHiringRounds();
-        return ResponseEntity.ok(ApiResponse.success(hiringRounds));
+    public ResponseEntity<ApiResponse<?>> getAllHiringRounds(
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            @RequestParam(required = false) Long cursor,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ListResponses.list(unpaged, cursor, pageable,
+                hiringRoundService::getAllHiringRounds, hiringRoundService::getHiringRoundsAfter,
+                hiringRoundService::getHiringRoundsPage);
     }
 
     @GetMapping("/{id}")
@@ -2,12 +2,21 @@ package com.wissen.ims.controller;
 
 import com.wissen.ims.dto.ApiResponse;
 import com.wissen.ims.model.Intern;
+import com.wissen.ims.service.ExportService;
 import com.wissen.ims.service.InternService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -17,10 +26,17 @@ public class InternController {
     @Autowired
     private InternService internService;
 
+    @Autowired
+    private ExportService exportService;
+
+    /** Paged list of summaries, see {@link ListResponses}; fetch {@code /{id}} for the full record. */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Intern>>> getAllInterns() {
-        List<Intern> interns = internService.getAllInterns();
-        return ResponseEntity.ok(ApiResponse.success(interns));
+    public ResponseEntity<ApiResponse<?>> getAllInterns(
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            @RequestParam(required = false) Long cursor,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ListResponses.list(unpaged, cursor, pageable,
+                internService::getAllInterns, internService::getInternsAfter, internService::getInternsPage);
     }
 
     @GetMapping("/{id}")
@@ -52,6 +68,29 @@ public class InternController {
         return ResponseEntity.ok(ApiResponse.success(interns));
     }
 
+    /**
+     * Streams matching interns as CSV. Filters are optional and combine with AND.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportInterns(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long collegeId,
+            @RequestParam(required = false) String term) {
+        Intern.InternStatus internStatus;
+        try {
+            internStatus = status == null ? null : Intern.InternStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> exportService.exportInterns(internStatus, collegeId, term, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"interns_" + LocalDate.now() + ".csv\"")
+                .body(body);
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<Intern>> createIntern(@RequestBody Intern intern) {
         try {
@@ -0,0 +1,47 @@
+package com.wissen.ims.controller;
+
+import com.wissen.ims.dto.ApiResponse;
+import com.wissen.ims.dto.PageResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Answers the paged list endpoints. A request pages with {@code page}, {@code size} and {@code sort} (the
+ * endpoints default to newest first), or seeks past {@code cursor}, an id from a previous page's
+ * {@code nextCursor}. {@code unpaged=true} returns every row as a plain list, as the endpoints did before paging.
+ */
+final class ListResponses {
+
+    private ListResponses() {
+    }
+
+    /**
+     * @param all       loads every row for {@code unpaged=true}
+     * @param afterId   loads the keyset page after a cursor, given the cursor and page size
+     * @param pageOf    loads an offset page
+     */
+    static <T, S> ResponseEntity<ApiResponse<?>> list(boolean unpaged, Long cursor, Pageable pageable,
+                                                      Supplier<List<T>> all,
+                                                      BiFunction<Long, Integer, PageResponse<S>> afterId,
+                                                      Function<Pageable, PageResponse<S>> pageOf) {
+        if (unpaged) {
+            return ResponseEntity.ok(ApiResponse.success(all.get()));
+        }
+
+        try {
+            PageResponse<S> page = cursor != null
+                    ? afterId.apply(cursor, pageable.getPageSize())
+                    : pageOf.apply(pageable);
+            return ResponseEntity.ok(ApiResponse.success(page));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid paging parameters: " + e.getMessage()));
+        }
+    }
+}
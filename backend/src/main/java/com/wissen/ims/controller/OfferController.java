@@ -1,11 +1,18 @@
 package com.wissen.ims.controller;
 
 import com.wissen.ims.dto.ApiResponse;
+import com.wissen.ims.dto.OfferBatchProgress;
+import com.wissen.ims.dto.OfferBatchRequest;
 import com.wissen.ims.model.Offer;
+import com.wissen.ims.model.OfferDispatch;
+import com.wissen.ims.service.OfferDispatchService;
 import com.wissen.ims.service.OfferService;
+import com.wissen.ims.storage.UploadRejectedException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -22,10 +29,17 @@ public class OfferController {
     @Autowired
     private OfferService offerService;
 
+    @Autowired
+    private OfferDispatchService offerDispatchService;
+
+    /** Paged list of summaries, see {@link ListResponses}; fetch {@code /{id}} for the full record. */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Offer>>> getAllOffers() {
-        List<Offer> offers = offerService.getAllOffers();
-        return ResponseEntity.ok(ApiResponse.success(offers));
+    public ResponseEntity<ApiResponse<?>> getAllOffers(
+            @RequestParam(defaultValue = "false") boolean unpaged,
+            @RequestParam(required = false) Long cursor,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ListResponses.list(unpaged, cursor, pageable,
+                offerService::getAllOffers, offerService::getOffersAfter, offerService::getOffersPage);
     }
 
     @GetMapping("/{id}")
@@ -97,6 +111,32 @@ public class OfferController {
         }
     }
 
+    /**
+     * Sends a cohort's offers at once, selected by {@code offerIds} or by college, join date range and intern
+     * status. Returns immediately with the batch's progress; poll {@code /batch/{batchId}} for updates.
+     */
+    @PostMapping("/batch/send")
+    public ResponseEntity<ApiResponse<OfferBatchProgress>> sendOffers(@RequestBody OfferBatchRequest request) {
+        try {
+            OfferBatchProgress progress = offerService.sendOffers(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success(progress));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/batch/{batchId}")
+    public ResponseEntity<ApiResponse<OfferBatchProgress>> getOfferBatchProgress(@PathVariable Long batchId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(offerDispatchService.getBatchProgress(batchId)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PatchMapping("/{id}/send")
     public ResponseEntity<ApiResponse<Offer>> sendOffer(@PathVariable Long id) {
         try {
@@ -108,6 +148,19 @@ public class OfferController {
         }
     }
 
+    /**
+     * Delivery status of the offer's letter email: PENDING, SENDING, SENT or FAILED, with attempts and last error.
+     */
+    @GetMapping("/{id}/delivery")
+    public ResponseEntity<ApiResponse<OfferDispatch>> getOfferDelivery(@PathVariable Long id) {
+        OfferDispatch dispatch = offerDispatchService.getLatestDispatch(id);
+        if (dispatch == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Offer has not been sent"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(dispatch));
+    }
+
     @PostMapping("/{id}/accept")
     public ResponseEntity<ApiResponse<Offer>> acceptOffer(
             @PathVariable Long id,
@@ -115,6 +168,9 @@ public class OfferController {
         try {
             Offer offer = offerService.acceptOffer(id, signedOffer);
             return ResponseEntity.ok(ApiResponse.success(offer));
+        } catch (UploadRejectedException e) {
+            return ResponseEntity.status(e.getStatus())
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -136,15 +192,14 @@ public class OfferController {
     public ResponseEntity<Resource> downloadOfferLetter(@PathVariable Long id) {
         try {
             Offer offer = offerService.getOfferById(id);
-            byte[] pdfBytes = offerService.downloadOfferLetter(id);
+            Resource resource = offerService.downloadOfferLetter(offer);
 
             String filename = "Internship_Offer_" + offer.getIntern().getName().replace(" ", "_") + ".pdf";
-            ByteArrayResource resource = new ByteArrayResource(pdfBytes);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_PDF)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(pdfBytes.length))
+                    .eTag(offer.getLetterHash())
                     .body(resource);
         } catch (Exception e) {
             System.err.println("❌ Download error: " + e.getMessage());
@@ -156,15 +211,14 @@ public class OfferController {
     public ResponseEntity<Resource> viewOfferLetter(@PathVariable Long id) {
         try {
             Offer offer = offerService.getOfferById(id);
-            byte[] pdfBytes = offerService.downloadOfferLetter(id);
+            Resource resource = offerService.downloadOfferLetter(offer);
 
             String filename = "Offer_Letter_" + offer.getIntern().getName().replace(" ", "_") + ".pdf";
-            ByteArrayResource resource = new ByteArrayResource(pdfBytes);
 
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_PDF)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"")
-                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(pdfBytes.length))
+                    .eTag(offer.getLetterHash())
                     .body(resource);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -175,7 +229,7 @@ public class OfferController {
     public ResponseEntity<String> previewOfferLetter(@PathVariable Long id) {
         try {
             Offer offer = offerService.getOfferById(id);
-            String htmlContent = offerService.renderOfferLetterHTML(offer.getIntern(), offer);
+            String htmlContent = offerService.renderOfferLetterHTML(offer);
             return ResponseEntity.ok()
                     .contentType(MediaType.TEXT_HTML)
                     .body(htmlContent);
@@ -0,0 +1,83 @@
+package com.wissen.ims.controller;
+
+import com.wissen.ims.dto.ApiResponse;
+import com.wissen.ims.dto.ScanStats;
+import com.wissen.ims.dto.StorageGcStats;
+import com.wissen.ims.service.DocumentArchiveService;
+import com.wissen.ims.service.DocumentScanService;
+import com.wissen.ims.service.StorageGarbageCollector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/storage")
+public class StorageAdminController {
+
+    @Autowired
+    private StorageGarbageCollector garbageCollector;
+
+    @Autowired
+    private DocumentArchiveService archiveService;
+
+    @Autowired
+    private DocumentScanService scanService;
+
+    /**
+     * Stats from the last orphaned-file collection since startup, or null if none has run yet.
+     */
+    @GetMapping("/gc")
+    public ResponseEntity<ApiResponse<StorageGcStats>> getGcStats() {
+        return ResponseEntity.ok(ApiResponse.success(garbageCollector.getLastRun()));
+    }
+
+    /**
+     * Starts a collection now instead of waiting for the nightly one. It runs in the background; GET shows its
+     * stats once it is done.
+     */
+    @PostMapping("/gc")
+    public ResponseEntity<ApiResponse<Void>> runGc() {
+        try {
+            if (!garbageCollector.start()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("A collection is already running"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Collection started", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Starts archiving the verified documents of finished interns now instead of waiting for the nightly run. It
+     * runs in the background and logs how many interns it archived.
+     */
+    @PostMapping("/archive")
+    public ResponseEntity<ApiResponse<Void>> archiveFinishedInterns() {
+        try {
+            if (!archiveService.start()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("Archival is already running"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Archival started", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * Virus scan counters, queue depth and timings since startup.
+     */
+    @GetMapping("/scans")
+    public ResponseEntity<ApiResponse<ScanStats>> getScanStats() {
+        return ResponseEntity.ok(ApiResponse.success(scanService.getStats()));
+    }
+}
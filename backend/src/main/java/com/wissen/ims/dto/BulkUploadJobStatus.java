@@ -0,0 +1,40 @@
+package com.wissen.ims.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUploadJobStatus {
+    private String jobId;
+    private String state; // QUEUED, RUNNING, COMPLETED, FAILED
+    private Long collegeId;
+    private String collegeName;
+    private String fileName;
+    private int rowsProcessed;
+    private int rowsSkipped;
+    private String mode; // INSERT or UPSERT
+    private int successCount;
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount;
+    private int errorCount;
+    private double rowsPerSecond;
+    private Map<String, Long> stageTimingsMs = new LinkedHashMap<>();
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // Paged view over the job's error list
+    private int errorPage;
+    private int errorPageSize;
+    private List<String> errors = new ArrayList<>();
+}
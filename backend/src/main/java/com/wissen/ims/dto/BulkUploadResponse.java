@@ -1,11 +1,14 @@
 package com.wissen.ims.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -14,8 +17,17 @@ public class BulkUploadResponse {
     private int totalRows;
     private int successCount;
     private int failureCount;
+    private volatile int processedRows;
+    private int skippedRows; // Rows already committed by an earlier attempt at the same file
+    private int insertedCount;
+    private int updatedCount;
+    private int unchangedCount; // Upsert rows identical to the stored candidate
     private List<String> errors = new ArrayList<>();
     private List<String> successMessages = new ArrayList<>();
+
+    // Cumulative time per import stage, kept in nanoseconds and reported in milliseconds
+    @JsonIgnore
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
     
     public void addError(String error) {
         errors.add(error);
@@ -26,4 +38,37 @@ public class BulkUploadResponse {
         successMessages.add(message);
         successCount++;
     }
+
+    public void addInserted(String message) {
+        addSuccess(message);
+        insertedCount++;
+    }
+
+    public void addUpdated(String message) {
+        addSuccess(message);
+        updatedCount++;
+    }
+
+    public void addUnchanged(String message) {
+        addSuccess(message);
+        unchangedCount++;
+    }
+
+    public void addProcessedRows(int rows) {
+        processedRows += rows;
+    }
+
+    public void addStageTime(String stage, long nanos) {
+        synchronized (stageNanos) {
+            stageNanos.merge(stage, nanos, Long::sum);
+        }
+    }
+
+    public Map<String, Long> getStageTimingsMs() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        synchronized (stageNanos) {
+            stageNanos.forEach((stage, nanos) -> timings.put(stage, nanos / 1_000_000));
+        }
+        return timings;
+    }
 }
@@ -0,0 +1,31 @@
+package com.wissen.ims.dto;
+
+import com.wissen.ims.model.Candidate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view row for a candidate. Built directly by a JPQL constructor expression, so no entity is loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateSummary {
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private Long collegeId;
+    private String collegeName;
+    private String branch;
+    private String cgpa;
+    private Integer graduationYear;
+    private Candidate.CandidateStatus status;
+    private String hiringRound;
+    private Candidate.HiringStatus hiringStatus;
+    private Integer hiringScore;
+    private LocalDateTime createdAt;
+}
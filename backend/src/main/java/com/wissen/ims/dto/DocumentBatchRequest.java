@@ -0,0 +1,11 @@
+package com.wissen.ims.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class DocumentBatchRequest {
+    private List<Long> documentIds;
+    private String reason; // Rejection reason; ignored when verifying
+}
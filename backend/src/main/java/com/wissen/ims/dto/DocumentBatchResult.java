@@ -0,0 +1,12 @@
+package com.wissen.ims.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DocumentBatchResult {
+    private int requested;      // Distinct document ids in the request
+    private int updated;        // Documents that existed and were updated
+    private int internsUpdated; // Interns whose status changed as a result
+}
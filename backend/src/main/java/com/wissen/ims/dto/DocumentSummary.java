@@ -0,0 +1,28 @@
+package com.wissen.ims.dto;
+
+import com.wissen.ims.model.Document;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view row for a document, carrying the owning intern's id and name instead of the intern itself.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentSummary {
+    private Long id;
+    private Long internId;
+    private String internName;
+    private String name;
+    private String label;
+    private String type;
+    private String size;
+    private Boolean required;
+    private Document.DocumentStatus status;
+    private LocalDateTime uploadedAt;
+    private LocalDateTime verifiedAt;
+}
@@ -0,0 +1,32 @@
+package com.wissen.ims.dto;
+
+import com.wissen.ims.model.Intern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * List-view row for an intern, without the course, project and skill collections. Built directly by a
+ * JPQL constructor expression, so no entity is loaded.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InternSummary {
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private String collegeName;
+    private String branch;
+    private String cgpa;
+    private LocalDate joinDate;
+    private Intern.InternStatus status;
+    private String hiringRound;
+    private Intern.HiringStatus hiringStatus;
+    private Integer hiringScore;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.wissen.ims.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class OfferBatchProgress {
+    private Long batchId;
+    private LocalDateTime createdAt;
+    private int requested;
+    private int queued;
+    private int skipped;
+
+    // Deliveries of the queued offers, by status
+    private long pending;
+    private long sending;
+    private long sent;
+    private long failed;
+    private boolean complete; // Nothing left pending or sending
+}
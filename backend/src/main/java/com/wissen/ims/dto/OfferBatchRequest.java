@@ -0,0 +1,26 @@
+package com.wissen.ims.dto;
+
+import com.wissen.ims.model.Intern;
+import com.wissen.ims.model.Offer;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Selects the offers to send: either {@code offerIds}, or every intern matching the filters. A filtered intern
+ * without an offer yet gets one generated from {@code template} (position, stipend, start date, ...). Filters
+ * only pick up offers not sent yet unless {@code resend} is set; listed offers are sent again either way.
+ */
+@Data
+public class OfferBatchRequest {
+    private List<Long> offerIds;
+
+    private Long collegeId;
+    private LocalDate joinDateFrom;
+    private LocalDate joinDateTo;
+    private Intern.InternStatus internStatus;
+    private boolean resend;
+
+    private Offer template;
+}
@@ -0,0 +1,31 @@
+package com.wissen.ims.dto;
+
+import com.wissen.ims.model.Offer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * List-view row for an offer, carrying the intern's id, name and email instead of the intern itself.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OfferSummary {
+    private Long id;
+    private Long internId;
+    private String internName;
+    private String internEmail;
+    private String position;
+    private String department;
+    private Integer stipend;
+    private LocalDate startDate;
+    private Offer.WorkMode workMode;
+    private Offer.OfferStatus status;
+    private LocalDateTime generatedAt;
+    private LocalDateTime sentAt;
+    private LocalDateTime acceptedAt;
+}
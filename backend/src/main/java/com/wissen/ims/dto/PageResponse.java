@@ -0,0 +1,50 @@
+package com.wissen.ims.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list endpoint. Offset pages carry {@code totalElements}/{@code totalPages}; keyset pages
+ * (requested with {@code cursor}) skip the count query and leave them null. Whenever the rows are ordered
+ * by id descending, {@code nextCursor} is the id to pass as {@code cursor} for the following page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponse<T> {
+    private List<T> content = new ArrayList<>();
+    private int page;
+    private int size;
+    private Long totalElements;
+    private Integer totalPages;
+    private boolean hasNext;
+    private Long nextCursor;
+
+    public static <T> PageResponse<T> of(Slice<T> slice, Function<T, Long> idOf) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setContent(slice.getContent());
+        response.setPage(slice.getNumber());
+        response.setSize(slice.getSize());
+        response.setHasNext(slice.hasNext());
+        if (slice instanceof Page<T> page) {
+            response.setTotalElements(page.getTotalElements());
+            response.setTotalPages(page.getTotalPages());
+        }
+
+        Sort.Order idOrder = slice.getSort().getOrderFor("id");
+        boolean idDescending = idOrder != null && idOrder.isDescending() && slice.getSort().stream().count() == 1;
+        if (idDescending && slice.hasNext() && slice.hasContent()) {
+            List<T> content = slice.getContent();
+            response.setNextCursor(idOf.apply(content.get(content.size() - 1)));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wissen.ims.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Virus scan counters since startup. Sampling twice and dividing the change in {@code completed} by the time
+ * between samples gives scan throughput under the current upload load.
+ */
+@Data
+public class ScanStats {
+    private LocalDateTime since;
+    private long completed;       // Scans that reached a verdict
+    private long clean;
+    private long infected;
+    private long failed;          // Checksum mismatches
+    private long reused;          // Passed without scanning: identical to a file that already passed
+    private long errors;          // Scanner unreachable or gave up; the document stays pending and is retried
+    private long averageScanMillis;
+    private long maxScanMillis;
+    private int activeScans;
+    private int queuedScans;
+    private long pendingDocuments; // Documents still waiting for a verdict
+}
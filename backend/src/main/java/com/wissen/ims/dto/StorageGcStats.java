@@ -0,0 +1,22 @@
+package com.wissen.ims.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * What one pass of the storage garbage collector found and did.
+ */
+@Data
+public class StorageGcStats {
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long referenced;       // Keys referenced from the database
+    private long scanned;          // Objects looked at outside the quarantine
+    private long quarantined;      // Orphans moved into quarantine this pass
+    private long quarantinedBytes;
+    private long restored;         // Quarantined objects referenced again, moved back
+    private long deleted;          // Quarantined objects past their grace period, deleted
+    private long bytesReclaimed;   // Size of the deleted objects
+    private long totalBytesReclaimed; // Across all passes since startup
+}
@@ -0,0 +1,15 @@
+package com.wissen.ims.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published after a document's file has been stored, so follow-up work such as virus scanning
+ * can run without holding up the upload request.
+ */
+@Data
+@AllArgsConstructor
+public class DocumentUploadedEvent {
+    private final Long documentId;
+    private final String filePath; // Object storage key of the uploaded file
+}
@@ -0,0 +1,34 @@
+package com.wissen.ims.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published whenever a candidate, intern, offer or college is created, deleted or moves between statuses.
+ * {@code fromStatus} is null for a creation and {@code toStatus} is null for a deletion; {@code count}
+ * lets a bulk operation report many identical transitions at once.
+ */
+@Data
+@AllArgsConstructor
+public class StatusChangedEvent {
+    private final Class<?> entityType;
+    private final String fromStatus;
+    private final String toStatus;
+    private final long count;
+
+    public static StatusChangedEvent created(Class<?> entityType, Enum<?> status) {
+        return new StatusChangedEvent(entityType, null, name(status), 1);
+    }
+
+    public static StatusChangedEvent changed(Class<?> entityType, Enum<?> from, Enum<?> to) {
+        return new StatusChangedEvent(entityType, name(from), name(to), 1);
+    }
+
+    public static StatusChangedEvent deleted(Class<?> entityType, Enum<?> status) {
+        return new StatusChangedEvent(entityType, name(status), null, 1);
+    }
+
+    private static String name(Enum<?> status) {
+        return status == null ? null : status.name();
+    }
+}
@@ -0,0 +1,90 @@
+package com.wissen.ims.mail;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Encrypts outbox email bodies at rest with AES-GCM, as they can carry login credentials. The key,
+ * {@code mail.outbox.encryption-key} (Base64 of 16, 24 or 32 bytes), is required and belongs to the outbox alone:
+ * rotating any other secret leaves queued bodies readable.
+ */
+@Component
+public class MailBodyCipher {
+
+    private static final String PREFIX = "enc:v1:";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${mail.outbox.encryption-key}")
+    private String encryptionKey;
+
+    private SecretKeySpec key;
+
+    @PostConstruct
+    void init() {
+        byte[] bytes;
+        try {
+            bytes = Base64.getDecoder().decode(encryptionKey.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("mail.outbox.encryption-key is not valid Base64", e);
+        }
+        if (bytes.length != 16 && bytes.length != 24 && bytes.length != 32) {
+            throw new IllegalStateException("mail.outbox.encryption-key must be 16, 24 or 32 bytes, not "
+                    + bytes.length);
+        }
+        key = new SecretKeySpec(bytes, "AES");
+    }
+
+    public String encrypt(String body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(body.getBytes(StandardCharsets.UTF_8));
+            return PREFIX + Base64.getEncoder().encodeToString(
+                    ByteBuffer.allocate(iv.length + sealed.length).put(iv).put(sealed).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not encrypt outbox email body", e);
+        }
+    }
+
+    /**
+     * @throws GeneralSecurityException if the body wasn't written by this cipher, or with a different key
+     */
+    public String decrypt(String stored) throws GeneralSecurityException {
+        if (stored == null) {
+            return null;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            throw new GeneralSecurityException("Body is not encrypted");
+        }
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(stored.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("Body is not valid Base64", e);
+        }
+        if (data.length <= IV_BYTES) {
+            throw new GeneralSecurityException("Body is truncated");
+        }
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, data, 0, IV_BYTES));
+        return new String(cipher.doFinal(data, IV_BYTES, data.length - IV_BYTES), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,36 @@
+package com.wissen.ims.mail;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces messages evenly so this node stays under the provider's sending quota. Each caller reserves the next
+ * free slot and sleeps until it comes round; unused slots are not saved up, so there is no burst after a quiet spell.
+ */
+public class MailRateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    /**
+     * @param messagesPerMinute 0 or less disables the limit
+     */
+    public MailRateLimiter(int messagesPerMinute) {
+        this.intervalNanos = messagesPerMinute > 0 ? TimeUnit.MINUTES.toNanos(1) / messagesPerMinute : 0;
+    }
+
+    public void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextSlot, now);
+            nextSlot = slot + intervalNanos;
+            wait = slot - now;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
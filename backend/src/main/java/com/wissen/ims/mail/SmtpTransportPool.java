@@ -0,0 +1,214 @@
+package com.wissen.ims.mail;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A few long-lived SMTP connections shared by everything that sends mail. A connection pays for its TCP, STARTTLS
+ * and AUTH handshakes once and then carries many messages, so a cohort's worth of emails doesn't serialize on
+ * handshakes. At most {@code mail.pool.size} connections are open; a sender waits for a free one.
+ * <p>
+ * Idle connections are checked with a NOOP before reuse and closed after {@code mail.pool.max-idle-seconds}, and a
+ * connection is retired after {@code mail.pool.max-messages-per-connection} messages, as providers drop sessions
+ * that run too long. All sends share one {@link MailRateLimiter} set to {@code mail.rate-per-minute}.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    @Autowired(required = false)
+    private JavaMailSenderImpl mailSender;
+
+    @Value("${mail.pool.size:4}")
+    private int size;
+
+    @Value("${mail.pool.max-messages-per-connection:100}")
+    private int maxMessagesPerConnection;
+
+    @Value("${mail.pool.max-idle-seconds:60}")
+    private long maxIdleSeconds;
+
+    @Value("${mail.rate-per-minute:120}")
+    private int ratePerMinute;
+
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private Semaphore connections;
+    private MailRateLimiter rateLimiter;
+
+    @PostConstruct
+    void init() {
+        connections = new Semaphore(size, true);
+        rateLimiter = new MailRateLimiter(ratePerMinute);
+        if (mailSender == null) {
+            log.warn("No mail server is configured (spring.mail.host); emails will not be sent");
+        }
+    }
+
+    public boolean isConfigured() {
+        return mailSender != null;
+    }
+
+    public MimeMessage createMimeMessage() {
+        return mailSender.createMimeMessage();
+    }
+
+    /**
+     * Sends the messages in order over one pooled connection. A message the server refuses (a bad recipient, say)
+     * doesn't stop the rest; if the connection itself fails, it is closed and the remaining messages fail with it.
+     *
+     * @return the messages that were not sent, with the reason; empty when all went out
+     */
+    public Map<MimeMessage, Exception> send(List<MimeMessage> messages) {
+        Map<MimeMessage, Exception> failures = new LinkedHashMap<>();
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failAll(messages, 0, new MessagingException("Interrupted while waiting for an SMTP connection"), failures);
+            return failures;
+        }
+
+        PooledTransport pooled = null;
+        try {
+            pooled = borrow();
+            for (int i = 0; i < messages.size(); i++) {
+                MimeMessage message = messages.get(i);
+                try {
+                    rateLimiter.acquire();
+                    prepare(message);
+                    pooled.transport.sendMessage(message, message.getAllRecipients());
+                    pooled.sent++;
+                } catch (SendFailedException e) {
+                    // Refused by the server; the connection is still fine for the next message
+                    failures.put(message, e);
+                } catch (MessagingException e) {
+                    close(pooled);
+                    pooled = null;
+                    failAll(messages, i, e, failures);
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failAll(messages, i, new MessagingException("Interrupted while sending"), failures);
+                    break;
+                }
+            }
+        } catch (MessagingException e) {
+            // Could not connect or authenticate, so nothing was sent
+            failAll(messages, 0, e, failures);
+        } finally {
+            if (pooled != null) {
+                giveBack(pooled);
+            }
+            connections.release();
+        }
+        return failures;
+    }
+
+    @Scheduled(fixedDelayString = "${mail.pool.reap-interval-ms:30000}")
+    public void closeIdleConnections() {
+        long now = System.nanoTime();
+        idle.removeIf(pooled -> {
+            boolean expired = now - pooled.returnedAt > TimeUnit.SECONDS.toNanos(maxIdleSeconds);
+            if (expired) {
+                close(pooled);
+            }
+            return expired;
+        });
+    }
+
+    @PreDestroy
+    void closeAll() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    // Most recently used first, so the rest go idle and get reaped when traffic drops
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            // isConnected() sends a NOOP, catching sessions the server has timed out
+            if (pooled.transport.isConnected()) {
+                return pooled;
+            }
+            close(pooled);
+        }
+
+        Transport transport = mailSender.getSession().getTransport(
+                mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        log.debug("Opened SMTP connection to {}", mailSender.getHost());
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport pooled) {
+        if (pooled.sent >= maxMessagesPerConnection) {
+            close(pooled);
+            return;
+        }
+        pooled.returnedAt = System.nanoTime();
+        idle.offerFirst(pooled);
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    // What JavaMailSenderImpl does before handing a message to its transport
+    private static void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // saveChanges() generates a new Message-ID; keep the one a retried message already had
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private static void failAll(List<MimeMessage> messages, int from, Exception cause,
+                                Map<MimeMessage, Exception> failures) {
+        for (MimeMessage message : messages.subList(from, messages.size())) {
+            failures.put(message, cause);
+        }
+    }
+
+    private static class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long returnedAt;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
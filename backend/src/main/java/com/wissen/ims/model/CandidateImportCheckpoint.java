@@ -0,0 +1,65 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "candidate_import_checkpoints", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "content_hash", "college_id", "import_mode" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class CandidateImportCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash; // SHA-256 of the uploaded CSV
+
+    @Column(name = "college_id", nullable = false)
+    private Long collegeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "import_mode", nullable = false, length = 20)
+    private ImportMode importMode = ImportMode.INSERT;
+
+    @Column(nullable = false)
+    private Integer committedRows = 0; // Data rows whose outcome is already committed
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportStatus status = ImportStatus.IN_PROGRESS;
+
+    @Column(length = 36)
+    private String owner; // The run importing the file now; null when none is
+
+    private LocalDateTime heartbeatAt; // The owner's last progress; a lease not renewed in time can be taken over
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public enum ImportMode {
+        INSERT, // Rows whose email already exists are rejected
+        UPSERT  // Rows whose email already exists update that candidate
+    }
+
+    public enum ImportStatus {
+        IN_PROGRESS,
+        COMPLETED
+    }
+}
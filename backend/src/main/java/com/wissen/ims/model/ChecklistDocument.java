@@ -0,0 +1,50 @@
+package com.wissen.ims.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The document types tracked by {@link InternDocumentChecklist}. Each type owns the bit {@code 1 << ordinal()}
+ * in the checklist masks, so new types must only ever be appended.
+ */
+public enum ChecklistDocument {
+    AADHAAR(true),
+    PAN(true),
+    CLASS_10(true),
+    CLASS_12(true),
+    DEGREE(true),
+    RESUME(false),
+    PHOTO(true),
+    BANK_PASSBOOK(true);
+
+    public static final int REQUIRED_MASK = Arrays.stream(values())
+            .filter(ChecklistDocument::isRequired)
+            .mapToInt(ChecklistDocument::bit)
+            .reduce(0, (a, b) -> a | b);
+
+    private static final Map<String, ChecklistDocument> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(ChecklistDocument::name, Function.identity()));
+
+    private final boolean required;
+
+    ChecklistDocument(boolean required) {
+        this.required = required;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Maps a {@link Document#getName()} to its type, or null for a document outside the checklist.
+     */
+    public static ChecklistDocument fromDocumentName(String name) {
+        return name == null ? null : BY_NAME.get(name);
+    }
+}
@@ -1,6 +1,8 @@
 package com.wissen.ims.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,7 +14,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "documents")
+@Table(name = "documents", indexes = {
+        @Index(name = "idx_documents_file_path", columnList = "file_path"),
+        @Index(name = "idx_documents_archive_key", columnList = "archive_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,11 +52,27 @@ public class Document {
     private String type; // PDF, JPG, PNG, DOC, DOCX
 
     @Column(nullable = false)
-    private String filePath;
+    private String filePath; // Shared by every document with the same content when contentHash is set
+
+    @Column(length = 64)
+    private String contentHash; // SHA-256 of the file; null for files stored before deduplication
+
+    @Embedded
+    @JsonIgnore
+    private DocumentArchiveEntry archive; // Set once the file has moved into its intern's archive; filePath is then stale
 
     @Column(nullable = false)
     private String size;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ScanStatus scanStatus; // Null for documents uploaded before virus scanning was introduced
+
+    @Column(length = 255)
+    private String scanDetail; // Signature found, or why the scan failed
+
+    private LocalDateTime scannedAt;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private DocumentStatus status = DocumentStatus.PENDING;
@@ -71,7 +92,23 @@ public class Document {
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    @JsonProperty("archived")
+    public boolean isArchived() {
+        return archive != null;
+    }
+
+    /**
+     * Whether the file may be served and verified: it passed its virus scan, or predates scanning.
+     */
+    public boolean passedScan() {
+        return scanStatus == null || scanStatus == ScanStatus.CLEAN;
+    }
+
     public enum DocumentStatus {
         PENDING, VERIFIED, REJECTED
     }
+
+    public enum ScanStatus {
+        SCANNING, CLEAN, INFECTED, FAILED
+    }
 }
@@ -0,0 +1,39 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where an archived document's file now lives: one deflated entry of a zip archive holding all of an intern's
+ * verified documents. The offset and sizes let the entry be read with a single ranged read, without opening the
+ * rest of the archive.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentArchiveEntry {
+
+    @Column(name = "archive_key")
+    private String archiveKey;
+
+    @Column(name = "archive_entry")
+    private String entryName;
+
+    @Column(name = "archive_offset")
+    private Long dataOffset; // First byte of the entry's compressed data within the archive
+
+    @Column(name = "archive_compressed_size")
+    private Long compressedSize;
+
+    @Column(name = "archive_size")
+    private Long size; // Uncompressed
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
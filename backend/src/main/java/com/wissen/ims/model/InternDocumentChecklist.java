@@ -0,0 +1,103 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which of an intern's {@link ChecklistDocument} types are uploaded, verified and rejected, one bit per type.
+ * Each upload, verification or rejection flips the bits of one type, so keeping an intern's document status
+ * current never needs their document list. A type's bits follow its latest document.
+ */
+@Entity
+@Table(name = "intern_document_checklists", indexes = {
+        @Index(name = "idx_checklists_verification_queue", columnList = "awaiting_verification, fully_uploaded_at")
+})
+@Data
+@NoArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class InternDocumentChecklist {
+
+    @Id
+    private Long internId;
+
+    @Column(nullable = false)
+    private int uploadedMask;
+
+    @Column(nullable = false)
+    private int verifiedMask;
+
+    @Column(nullable = false)
+    private int rejectedMask;
+
+    // All required documents uploaded, none rejected and not all verified yet; what the verification queue lists
+    @Column(nullable = false)
+    private boolean awaitingVerification;
+
+    private LocalDateTime fullyUploadedAt; // When the last required document arrived; orders the queue
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+
+    public void markUploaded(ChecklistDocument type) {
+        uploadedMask |= type.bit();
+        verifiedMask &= ~type.bit();
+        rejectedMask &= ~type.bit();
+        refresh();
+    }
+
+    public void markVerified(ChecklistDocument type) {
+        uploadedMask |= type.bit();
+        verifiedMask |= type.bit();
+        rejectedMask &= ~type.bit();
+        refresh();
+    }
+
+    public void markRejected(ChecklistDocument type) {
+        uploadedMask |= type.bit();
+        verifiedMask &= ~type.bit();
+        rejectedMask |= type.bit();
+        refresh();
+    }
+
+    public void clear() {
+        uploadedMask = 0;
+        verifiedMask = 0;
+        rejectedMask = 0;
+        refresh();
+    }
+
+    /**
+     * - DOCUMENT_PENDING: No documents or some rejected
+     * - DOCUMENT_VERIFICATION: All required docs uploaded, waiting for admin verification
+     * - DOCUMENT_VERIFIED: All required docs verified by admin
+     */
+    public Intern.InternStatus documentStatus() {
+        if (rejectedMask != 0) {
+            return Intern.InternStatus.DOCUMENT_PENDING;
+        } else if (covers(verifiedMask)) {
+            return Intern.InternStatus.DOCUMENT_VERIFIED;
+        } else if (covers(uploadedMask)) {
+            return Intern.InternStatus.DOCUMENT_VERIFICATION;
+        }
+        return Intern.InternStatus.DOCUMENT_PENDING;
+    }
+
+    private void refresh() {
+        boolean fullyUploaded = covers(uploadedMask);
+        if (!fullyUploaded) {
+            fullyUploadedAt = null;
+        } else if (fullyUploadedAt == null) {
+            fullyUploadedAt = LocalDateTime.now();
+        }
+        awaitingVerification = fullyUploaded && rejectedMask == 0 && !covers(verifiedMask);
+    }
+
+    private static boolean covers(int mask) {
+        return (mask & ChecklistDocument.REQUIRED_MASK) == ChecklistDocument.REQUIRED_MASK;
+    }
+}
@@ -0,0 +1,40 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One queued email. Callers only insert this row; outbox workers claim due rows and send them over the pooled
+ * SMTP connections, retrying failures with backoff. The body can hold login credentials, so it is stored encrypted
+ * (see MailBodyCipher) and cleared once the message has been sent, given up on or expired.
+ */
+@Entity
+@Table(name = "mail_outbox", indexes = {
+        @Index(name = "idx_mail_outbox_due", columnList = "status, next_attempt_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true, exclude = "body")
+@NoArgsConstructor
+public class MailOutboxMessage extends OutboxEntry {
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(columnDefinition = "TEXT")
+    private String body; // Encrypted by MailBodyCipher
+
+    @Column(nullable = false)
+    private boolean html;
+
+    @Override
+    protected void finished() {
+        body = null;
+    }
+}
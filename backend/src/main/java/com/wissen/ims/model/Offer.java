@@ -1,5 +1,6 @@
 package com.wissen.ims.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -67,6 +68,25 @@ public class Offer {
     @Column(name = "signed_offer_path")
     private String signedOfferPath; // Path to uploaded signed offer letter
 
+    // The generated letter: stored once per version and served as is until the details it shows change. Only
+    // OfferRepository.updateLetter writes these, so saving an Offer loaded before a new version can't undo it.
+    @JsonIgnore
+    @Column(updatable = false)
+    private String letterPath;
+
+    @Column(updatable = false)
+    private String letterHash; // SHA-256 of the stored PDF, hex encoded
+
+    @Column(updatable = false)
+    private Integer letterVersion;
+
+    @Column(updatable = false)
+    private LocalDate letterDate; // The date printed on the letter
+
+    @JsonIgnore
+    @Column(updatable = false)
+    private String letterFingerprint; // Hash of the details the letter was rendered from
+
     @CreatedDate
     @Column(nullable = false, updatable = false)
     private LocalDateTime generatedAt;
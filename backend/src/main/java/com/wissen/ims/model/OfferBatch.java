@@ -0,0 +1,37 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bulk send of offers. Its dispatches carry its id, so progress is their statuses counted together.
+ */
+@Entity
+@Table(name = "offer_batches")
+@Data
+@NoArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class OfferBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private int requested; // Offers or interns the request selected
+
+    @Column(nullable = false)
+    private int queued;
+
+    @Column(nullable = false)
+    private int skipped; // Already accepted or rejected, or no offer and no template to generate one
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
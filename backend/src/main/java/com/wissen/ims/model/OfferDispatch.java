@@ -0,0 +1,30 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One queued delivery of an offer letter email. Sending an offer only inserts this row; dispatch workers claim
+ * due rows, render the letter and mail it, retrying failures with backoff. The row is the offer's delivery status.
+ */
+@Entity
+@Table(name = "offer_dispatches", indexes = {
+        @Index(name = "idx_offer_dispatches_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_offer_dispatches_offer", columnList = "offer_id"),
+        @Index(name = "idx_offer_dispatches_batch", columnList = "batch_id")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class OfferDispatch extends OutboxEntry {
+
+    @Column(name = "offer_id", nullable = false)
+    private Long offerId;
+
+    @Column(name = "batch_id")
+    private Long batchId; // The OfferBatch that queued it; null for a single send
+}
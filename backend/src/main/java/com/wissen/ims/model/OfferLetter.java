@@ -0,0 +1,47 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One stored version of an offer's letter. The offer points at its current version; the rows for earlier ones
+ * keep those files referenced, so a letter that was mailed can still be produced after the offer has changed.
+ */
+@Entity
+@Table(name = "offer_letters", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_offer_letters_version", columnNames = {"offer_id", "version"})
+})
+@Data
+@NoArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class OfferLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "offer_id", nullable = false)
+    private Long offerId;
+
+    @Column(nullable = false)
+    private int version;
+
+    @Column(nullable = false)
+    private String path;
+
+    @Column(nullable = false, length = 64)
+    private String hash; // SHA-256 of the stored PDF, hex encoded
+
+    @Column(nullable = false)
+    private LocalDate letterDate; // The date printed on the letter
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,74 @@
+package com.wissen.ims.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * The delivery state shared by the outbox tables. A row is inserted PENDING, claimed by a worker (SENDING) once
+ * {@code nextAttemptAt} has passed, and ends SENT or FAILED; a failed attempt puts it back to PENDING with a later
+ * {@code nextAttemptAt}. See {@code OutboxWorker}.
+ */
+@MappedSuperclass
+@Data
+@EntityListeners(AuditingEntityListener.class)
+public abstract class OutboxEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; // Not claimed before this; pushed back after each failed attempt
+
+    private LocalDateTime claimedAt; // When a worker took it; a SENDING row claimed long ago was abandoned
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public void markSent(LocalDateTime now) {
+        status = OutboxStatus.SENT;
+        sentAt = now;
+        lastError = null;
+        finished();
+    }
+
+    public void markFailed(String reason) {
+        status = OutboxStatus.FAILED;
+        lastError = truncate(reason);
+        finished();
+    }
+
+    public void retryAt(LocalDateTime at, String reason) {
+        status = OutboxStatus.PENDING;
+        nextAttemptAt = at;
+        lastError = truncate(reason);
+    }
+
+    // Called once the row is sent or given up on, to drop anything it no longer needs
+    protected void finished() {
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
@@ -0,0 +1,11 @@
+package com.wissen.ims.model;
+
+/**
+ * Where a row of an outbox table ({@link OutboxEntry}) is in its delivery.
+ */
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
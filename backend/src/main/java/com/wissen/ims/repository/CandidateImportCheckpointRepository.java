@@ -0,0 +1,45 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.model.CandidateImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CandidateImportCheckpointRepository extends JpaRepository<CandidateImportCheckpoint, Long> {
+
+    Optional<CandidateImportCheckpoint> findByContentHashAndCollegeIdAndImportMode(
+            String contentHash, Long collegeId, CandidateImportCheckpoint.ImportMode importMode);
+
+    // Leases the file's import to one run, unless another run holds it and has made progress since staleBefore
+    @Modifying
+    @Query("UPDATE CandidateImportCheckpoint c SET c.owner = :owner, c.heartbeatAt = :now, c.updatedAt = :now " +
+            "WHERE c.id = :id AND (c.owner IS NULL OR c.heartbeatAt < :staleBefore)")
+    int claim(Long id, String owner, LocalDateTime now, LocalDateTime staleBefore);
+
+    // Also renews the lease; does nothing once another run has taken it over
+    @Modifying
+    @Query("UPDATE CandidateImportCheckpoint c SET c.committedRows = :committedRows, c.heartbeatAt = :updatedAt, " +
+            "c.updatedAt = :updatedAt WHERE c.id = :id AND c.owner = :owner")
+    int advance(Long id, String owner, Integer committedRows, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE CandidateImportCheckpoint c SET c.status = :status, c.owner = NULL, c.updatedAt = :updatedAt " +
+            "WHERE c.id = :id AND c.owner = :owner")
+    int complete(Long id, String owner, CandidateImportCheckpoint.ImportStatus status, LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE CandidateImportCheckpoint c SET c.owner = NULL WHERE c.id = :id AND c.owner = :owner")
+    int release(Long id, String owner);
+
+    // Starts a completed file's import over from its first row
+    @Modifying
+    @Query("UPDATE CandidateImportCheckpoint c SET c.committedRows = 0, c.status = :to, c.updatedAt = :updatedAt " +
+            "WHERE c.id = :id AND c.status = :from")
+    int restart(Long id, CandidateImportCheckpoint.ImportStatus from, CandidateImportCheckpoint.ImportStatus to,
+                LocalDateTime updatedAt);
+}
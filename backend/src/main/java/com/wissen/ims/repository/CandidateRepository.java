@@ -1,11 +1,21 @@
 package com.wissen.ims.repository;
 
+import com.wissen.ims.dto.CandidateSummary;
 import com.wissen.ims.model.Candidate;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CandidateRepository extends JpaRepository<Candidate, Long> {
@@ -13,8 +23,18 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     Optional<Candidate> findByEmail(String email);
     
     boolean existsByEmail(String email);
+
+    @Query("SELECT c.email FROM Candidate c WHERE c.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    // Emails already taken by another college's candidates (or by candidates with no college)
+    @Query("SELECT c.email FROM Candidate c WHERE c.email IN :emails " +
+            "AND (c.collegeId IS NULL OR c.collegeId <> :collegeId)")
+    List<String> findEmailsOfOtherColleges(Collection<String> emails, Long collegeId);
     
     List<Candidate> findByStatus(Candidate.CandidateStatus status);
+
+    long countByStatus(Candidate.CandidateStatus status);
     
     List<Candidate> findByCollegeId(Long collegeId);
     
@@ -22,4 +42,31 @@ public interface CandidateRepository extends JpaRepository<Candidate, Long> {
     
     List<Candidate> findByNameContainingIgnoreCaseOrEmailContainingIgnoreCaseOrCollegeNameContainingIgnoreCase(
             String name, String email, String collegeName);
+
+    /**
+     * Cursor over the candidates matching the optional filters, for exports. The fetch size keeps the driver
+     * from buffering the whole result; the stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Candidate c WHERE (:status IS NULL OR c.status = :status) " +
+            "AND (:collegeId IS NULL OR c.collegeId = :collegeId) " +
+            "AND (:term IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :term, '%')) " +
+            "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :term, '%')) " +
+            "OR LOWER(c.collegeName) LIKE LOWER(CONCAT('%', :term, '%'))) " +
+            "ORDER BY c.id")
+    Stream<Candidate> streamForExport(Candidate.CandidateStatus status, Long collegeId, String term);
+
+    // List views read these columns straight into CandidateSummary instead of loading entities
+    String SUMMARY_SELECT = "SELECT new com.wissen.ims.dto.CandidateSummary(" +
+            "c.id, c.name, c.email, c.phone, c.collegeId, c.collegeName, c.branch, c.cgpa, " +
+            "c.graduationYear, c.status, c.hiringRound, c.hiringStatus, c.hiringScore, c.createdAt) FROM Candidate c";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(c) FROM Candidate c")
+    Page<CandidateSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE c.id < :id")
+    Slice<CandidateSummary> findSummariesByIdLessThan(Long id, Pageable pageable);
 }
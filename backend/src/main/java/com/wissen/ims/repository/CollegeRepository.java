@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface CollegeRepository extends JpaRepository<College, Long> {
+public interface CollegeRepository extends JpaRepository<College, Long>, KeysetPagingRepository<College> {
     List<College> findByStatus(College.VisitStatus status);
     List<College> findByNameContainingIgnoreCaseOrLocationContainingIgnoreCase(String name, String location);
 }
@@ -1,16 +1,67 @@
 package com.wissen.ims.repository;
 
+import com.wissen.ims.dto.DocumentSummary;
 import com.wissen.ims.model.Document;
 import com.wissen.ims.model.Intern;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
     List<Document> findByIntern(Intern intern);
     List<Document> findByInternId(Long internId);
+    List<Document> findByInternIdOrderByIdAsc(Long internId);
+    boolean existsByInternIdAndNameAndIdGreaterThan(Long internId, String name, Long id);
     List<Document> findByStatus(Document.DocumentStatus status);
     Long countByInternAndStatus(Intern intern, Document.DocumentStatus status);
+
+    @Query("SELECT COUNT(d) FROM Document d WHERE d.archive.archiveKey = :archiveKey")
+    long countByArchiveKey(String archiveKey);
+
+    // Interns in one of the given statuses with documents in the given status not yet archived
+    @Query("SELECT DISTINCT d.intern.id FROM Document d WHERE d.intern.status IN :internStatuses " +
+            "AND d.status = :status AND d.archive.archiveKey IS NULL")
+    List<Long> findInternIdsToArchive(Collection<Intern.InternStatus> internStatuses,
+                                      Document.DocumentStatus status, Pageable pageable);
+
+    boolean existsByContentHashAndScanStatus(String contentHash, Document.ScanStatus scanStatus);
+
+    @Query("SELECT d.id FROM Document d WHERE d.scanStatus = :scanStatus AND d.uploadedAt < :before ORDER BY d.id")
+    List<Long> findIdsByScanStatusUploadedBefore(Document.ScanStatus scanStatus, LocalDateTime before);
+
+    long countByScanStatus(Document.ScanStatus scanStatus);
+
+    // Only moves a document out of `from`, so a late duplicate scan can't overwrite the first result
+    @Modifying
+    @Query("UPDATE Document d SET d.scanStatus = :to, d.scanDetail = :detail, d.scannedAt = :scannedAt " +
+            "WHERE d.id = :id AND d.scanStatus = :from")
+    int updateScanStatus(Long id, Document.ScanStatus from, Document.ScanStatus to, String detail,
+                         LocalDateTime scannedAt);
+
+    // List views read these columns straight into DocumentSummary instead of loading entities
+    String SUMMARY_SELECT = "SELECT new com.wissen.ims.dto.DocumentSummary(" +
+            "d.id, i.id, i.name, d.name, d.label, d.type, d.size, d.required, " +
+            "d.status, d.uploadedAt, d.verifiedAt) FROM Document d JOIN d.intern i";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(d) FROM Document d")
+    Page<DocumentSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE d.id < :id")
+    Slice<DocumentSummary> findSummariesByIdLessThan(Long id, Pageable pageable);
+
+    // A null reason leaves any earlier rejection reason in place, as single-document verification does
+    @Modifying
+    @Query("UPDATE Document d SET d.status = :status, d.rejectionReason = COALESCE(:reason, d.rejectionReason), " +
+            "d.verifiedBy = :verifiedBy, d.verifiedAt = :reviewedAt, d.updatedAt = :reviewedAt WHERE d.id IN :ids")
+    int updateReview(Collection<Long> ids, Document.DocumentStatus status, String reason, String verifiedBy,
+                     LocalDateTime reviewedAt);
 }
@@ -9,10 +9,12 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface HiringRoundRepository extends JpaRepository<HiringRound, Long> {
+public interface HiringRoundRepository extends JpaRepository<HiringRound, Long>, KeysetPagingRepository<HiringRound> {
     List<HiringRound> findByIntern(Intern intern);
     List<HiringRound> findByInternId(Long internId);
     List<HiringRound> findByStatus(HiringRound.RoundStatus status);
+
+    long countByStatus(HiringRound.RoundStatus status);
     List<HiringRound> findByInternAndStatus(Intern intern, HiringRound.RoundStatus status);
     Optional<HiringRound> findByInternIdAndRoundName(Long internId, String roundName);
 }
@@ -0,0 +1,40 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.dto.InternSummary;
+import com.wissen.ims.model.InternDocumentChecklist;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InternDocumentChecklistRepository extends JpaRepository<InternDocumentChecklist, Long> {
+
+    // Row lock, so concurrent reviews of one intern's documents apply their bit changes one after another
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM InternDocumentChecklist c WHERE c.internId = :internId")
+    Optional<InternDocumentChecklist> findForUpdate(Long internId);
+
+    @Modifying
+    @Query(value = "INSERT INTO intern_document_checklists " +
+            "(intern_id, uploaded_mask, verified_mask, rejected_mask, awaiting_verification) " +
+            "VALUES (:internId, 0, 0, 0, false) ON CONFLICT (intern_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(Long internId);
+
+    @Query("SELECT DISTINCT d.intern.id FROM Document d WHERE NOT EXISTS " +
+            "(SELECT c FROM InternDocumentChecklist c WHERE c.internId = d.intern.id)")
+    List<Long> findInternIdsWithoutChecklist();
+
+    // Oldest complete upload first; reads the queue index instead of scanning documents
+    @Query(value = InternRepository.SUMMARY_SELECT + ", InternDocumentChecklist c " +
+            "WHERE c.internId = i.id AND c.awaitingVerification = true ORDER BY c.fullyUploadedAt",
+            countQuery = "SELECT COUNT(c) FROM InternDocumentChecklist c WHERE c.awaitingVerification = true")
+    Page<InternSummary> findVerificationQueue(Pageable pageable);
+}
@@ -1,16 +1,28 @@
 package com.wissen.ims.repository;
 
+import com.wissen.ims.dto.InternSummary;
 import com.wissen.ims.model.Intern;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InternRepository extends JpaRepository<Intern, Long> {
     List<Intern> findByStatus(Intern.InternStatus status);
 
+    long countByStatus(Intern.InternStatus status);
+
     List<Intern> findByStatusAndNameContainingIgnoreCaseOrStatusAndEmailContainingIgnoreCaseOrStatusAndCollegeNameContainingIgnoreCase(
             Intern.InternStatus status1, String name,
             Intern.InternStatus status2, String email,
@@ -23,9 +35,45 @@ public interface InternRepository extends JpaRepository<Intern, Long> {
 
     Boolean existsByEmail(String email);
 
-    @org.springframework.data.jpa.repository.Query("SELECT COUNT(i) FROM Intern i JOIN i.assignedCourses c WHERE c.id = :courseId")
+    @Query("SELECT COUNT(i) FROM Intern i JOIN i.assignedCourses c WHERE c.id = :courseId")
     long countInternsByCourseId(Long courseId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT COUNT(i) FROM Intern i JOIN i.assignedProjects p WHERE p.id = :projectId")
+    @Query("SELECT COUNT(i) FROM Intern i JOIN i.assignedProjects p WHERE p.id = :projectId")
     long countInternsByProjectId(Long projectId);
+
+    /**
+     * Cursor over the interns matching the optional filters, for exports. Must be consumed and closed
+     * inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Intern i WHERE (:status IS NULL OR i.status = :status) " +
+            "AND (:collegeId IS NULL OR i.college.id = :collegeId) " +
+            "AND (:term IS NULL OR LOWER(i.name) LIKE LOWER(CONCAT('%', :term, '%')) " +
+            "OR LOWER(i.email) LIKE LOWER(CONCAT('%', :term, '%')) " +
+            "OR LOWER(i.collegeName) LIKE LOWER(CONCAT('%', :term, '%'))) " +
+            "ORDER BY i.id")
+    Stream<Intern> streamForExport(Intern.InternStatus status, Long collegeId, String term);
+
+    // Cohort selection for bulk offer sends; every filter is optional
+    @Query("SELECT i FROM Intern i WHERE (:status IS NULL OR i.status = :status) " +
+            "AND (:collegeId IS NULL OR i.college.id = :collegeId) " +
+            "AND (CAST(:joinDateFrom AS LocalDate) IS NULL OR i.joinDate >= :joinDateFrom) " +
+            "AND (CAST(:joinDateTo AS LocalDate) IS NULL OR i.joinDate <= :joinDateTo) " +
+            "ORDER BY i.id")
+    List<Intern> findForOfferBatch(Intern.InternStatus status, Long collegeId, LocalDate joinDateFrom,
+                                   LocalDate joinDateTo);
+
+    // List views read these columns straight into InternSummary instead of loading entities
+    String SUMMARY_SELECT = "SELECT new com.wissen.ims.dto.InternSummary(" +
+            "i.id, i.name, i.email, i.phone, i.collegeName, i.branch, i.cgpa, i.joinDate, " +
+            "i.status, i.hiringRound, i.hiringStatus, i.hiringScore, i.createdAt) FROM Intern i";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(i) FROM Intern i")
+    Page<InternSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE i.id < :id")
+    Slice<InternSummary> findSummariesByIdLessThan(Long id, Pageable pageable);
 }
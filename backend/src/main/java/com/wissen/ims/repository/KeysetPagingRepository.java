@@ -0,0 +1,15 @@
+package com.wissen.ims.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Keyset (seek) paging on the identity column. Ids are assigned in insertion order, so descending id is
+ * also newest-first by creation time, and a page costs the same no matter how deep into the table it is.
+ */
+@NoRepositoryBean
+public interface KeysetPagingRepository<T> {
+
+    Slice<T> findByIdLessThan(Long id, Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.model.MailOutboxMessage;
+import com.wissen.ims.model.OutboxStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MailOutboxRepository extends OutboxRepository<MailOutboxMessage> {
+
+    @Override
+    @Query(value = "SELECT id FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDue(LocalDateTime now, int limit);
+
+    // Gives up on emails queued too long ago, dropping their bodies with them
+    @Modifying
+    @Query("UPDATE MailOutboxMessage m SET m.status = :to, m.body = NULL, m.lastError = :reason " +
+            "WHERE m.status = :from AND m.createdAt < :createdBefore")
+    int expire(OutboxStatus from, OutboxStatus to, String reason, LocalDateTime createdBefore);
+
+    @Modifying
+    @Query("DELETE FROM MailOutboxMessage m WHERE m.status IN :statuses AND m.createdAt < :createdBefore")
+    int deleteByStatusInCreatedBefore(Collection<OutboxStatus> statuses, LocalDateTime createdBefore);
+}
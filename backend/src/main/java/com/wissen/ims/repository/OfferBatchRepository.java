@@ -0,0 +1,9 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.model.OfferBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OfferBatchRepository extends JpaRepository<OfferBatch, Long> {
+}
@@ -0,0 +1,36 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.model.OfferDispatch;
+import com.wissen.ims.model.OutboxStatus;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OfferDispatchRepository extends OutboxRepository<OfferDispatch> {
+
+    Optional<OfferDispatch> findFirstByOfferIdOrderByIdDesc(Long offerId);
+
+    // Does nothing if the offer already has a PENDING or SENDING row, per the partial unique index that
+    // OfferDispatchService creates; a concurrent insert for the same offer waits and then does nothing too
+    @Modifying
+    @Query(value = "INSERT INTO offer_dispatches (offer_id, batch_id, status, attempts, next_attempt_at, created_at) " +
+            "VALUES (:offerId, :batchId, 'PENDING', 0, :now, :now) " +
+            "ON CONFLICT (offer_id) WHERE status IN ('PENDING', 'SENDING') DO NOTHING", nativeQuery = true)
+    int insertIfNoneActive(Long offerId, Long batchId, LocalDateTime now);
+
+    long countByStatus(OutboxStatus status);
+
+    // [status, count] pairs for one batch's dispatches
+    @Query("SELECT d.status, COUNT(d) FROM OfferDispatch d WHERE d.batchId = :batchId GROUP BY d.status")
+    List<Object[]> countByStatusForBatch(Long batchId);
+
+    @Override
+    @Query(value = "SELECT id FROM offer_dispatches WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDue(LocalDateTime now, int limit);
+}
@@ -0,0 +1,15 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.model.OfferLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OfferLetterRepository extends JpaRepository<OfferLetter, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OfferLetter l WHERE l.offerId = :offerId")
+    int deleteByOfferId(Long offerId);
+}
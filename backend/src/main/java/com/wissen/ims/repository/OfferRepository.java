@@ -1,16 +1,58 @@
 package com.wissen.ims.repository;
 
-import com.wissen.ims.model.Offer;
+import com.wissen.ims.dto.OfferSummary;
 import com.wissen.ims.model.Intern;
+import com.wissen.ims.model.Offer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OfferRepository extends JpaRepository<Offer, Long> {
     List<Offer> findByStatus(Offer.OfferStatus status);
+
+    long countByStatus(Offer.OfferStatus status);
     Optional<Offer> findByIntern(Intern intern);
     List<Offer> findByInternId(Long internId);
+    List<Offer> findByInternIdIn(Collection<Long> internIds);
+
+    // Only replaces the version the caller rendered from, so of two concurrent renders the first one wins
+    @Modifying
+    @Query("UPDATE Offer o SET o.letterPath = :path, o.letterHash = :hash, o.letterVersion = :version, " +
+            "o.letterDate = :letterDate, o.letterFingerprint = :fingerprint " +
+            "WHERE o.id = :id AND COALESCE(o.letterVersion, 0) = :version - 1")
+    int updateLetter(Long id, int version, String path, String hash, LocalDate letterDate, String fingerprint);
+
+    // Read as a projection so the result comes from the database, not a cached Offer from earlier in the request
+    @Query("SELECT o.letterPath AS letterPath, o.letterHash AS letterHash, o.letterVersion AS letterVersion, " +
+            "o.letterDate AS letterDate, o.letterFingerprint AS letterFingerprint FROM Offer o WHERE o.id = :id")
+    Optional<StoredLetter> findStoredLetter(Long id);
+
+    interface StoredLetter {
+        String getLetterPath();
+        String getLetterHash();
+        Integer getLetterVersion();
+        LocalDate getLetterDate();
+        String getLetterFingerprint();
+    }
+
+    // List views read these columns straight into OfferSummary instead of loading entities
+    String SUMMARY_SELECT = "SELECT new com.wissen.ims.dto.OfferSummary(" +
+            "o.id, i.id, i.name, i.email, o.position, o.department, o.stipend, o.startDate, " +
+            "o.workMode, o.status, o.generatedAt, o.sentAt, o.acceptedAt) FROM Offer o JOIN o.intern i";
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(o) FROM Offer o")
+    Page<OfferSummary> findSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + " WHERE o.id < :id")
+    Slice<OfferSummary> findSummariesByIdLessThan(Long id, Pageable pageable);
 }
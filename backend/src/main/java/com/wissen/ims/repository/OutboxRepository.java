@@ -0,0 +1,36 @@
+package com.wissen.ims.repository;
+
+import com.wissen.ims.model.OutboxEntry;
+import com.wissen.ims.model.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The queries {@code OutboxWorker} runs against an outbox table.
+ */
+@NoRepositoryBean
+public interface OutboxRepository<T extends OutboxEntry> extends JpaRepository<T, Long> {
+
+    /**
+     * Locks up to {@code limit} due PENDING rows with SKIP LOCKED, so every backend replica can poll at once and
+     * each locks a different set. Native, so each table declares it.
+     */
+    List<Long> lockDue(LocalDateTime now, int limit);
+
+    @Modifying
+    @Query("UPDATE #{#entityName} e SET e.status = :status, e.claimedAt = :now, e.attempts = e.attempts + 1 " +
+            "WHERE e.id IN :ids")
+    int markClaimed(Collection<Long> ids, OutboxStatus status, LocalDateTime now);
+
+    // Claims left behind by a node that stopped mid-send go back in the queue
+    @Modifying
+    @Query("UPDATE #{#entityName} e SET e.status = :to, e.nextAttemptAt = :now " +
+            "WHERE e.status = :from AND e.claimedAt < :claimedBefore")
+    int releaseAbandoned(OutboxStatus from, OutboxStatus to, LocalDateTime claimedBefore, LocalDateTime now);
+}
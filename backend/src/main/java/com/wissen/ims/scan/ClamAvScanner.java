@@ -0,0 +1,85 @@
+package com.wissen.ims.scan;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scans with a ClamAV daemon over its TCP socket. Files are sent with the {@code INSTREAM} command in chunks, so
+ * clamd needs no access to our storage and nothing is buffered beyond one chunk.
+ * <p>
+ * clamd refuses streams longer than its {@code StreamMaxLength} (25 MB by default), which is well above our upload
+ * limit; should it happen, the scan fails and is retried rather than treated as clean.
+ */
+@Component
+@ConditionalOnProperty(name = "scan.type", havingValue = "clamav")
+public class ClamAvScanner implements VirusScanner {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final String FOUND_SUFFIX = " FOUND";
+
+    private final String host;
+    private final int port;
+    private final int timeoutMs;
+
+    public ClamAvScanner(
+            @Value("${scan.clamav.host:localhost}") String host,
+            @Value("${scan.clamav.port:3310}") int port,
+            @Value("${scan.clamav.timeout-ms:60000}") int timeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public ScanResult scan(InputStream content) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMs);
+            socket.setSoTimeout(timeoutMs);
+
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            // The "z" prefix means NUL-terminated command and reply
+            out.write("zINSTREAM\0".getBytes(StandardCharsets.US_ASCII));
+            byte[] chunk = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = content.readNBytes(chunk, 0, chunk.length)) > 0) {
+                out.writeInt(read);
+                out.write(chunk, 0, read);
+            }
+            // A zero-length chunk ends the stream
+            out.writeInt(0);
+            out.flush();
+
+            return parseReply(readReply(socket.getInputStream()));
+        }
+    }
+
+    private static String readReply(InputStream in) throws IOException {
+        ByteArrayOutputStream reply = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) > 0) {
+            reply.write(b);
+        }
+        return reply.toString(StandardCharsets.US_ASCII).trim();
+    }
+
+    // Replies look like "stream: OK", "stream: Win.Test.EICAR_HDB-1 FOUND" or "... ERROR"
+    private static ScanResult parseReply(String reply) throws IOException {
+        String status = reply.startsWith("stream: ") ? reply.substring("stream: ".length()) : reply;
+        if (status.equals("OK")) {
+            return ScanResult.clean();
+        }
+        if (status.endsWith(FOUND_SUFFIX)) {
+            return ScanResult.infected(status.substring(0, status.length() - FOUND_SUFFIX.length()));
+        }
+        throw new IOException("ClamAV could not scan the file: " + reply);
+    }
+}
@@ -0,0 +1,38 @@
+package com.wissen.ims.scan;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stands in for ClamAV in local development: flags files containing the standard EICAR test string and passes
+ * everything else. Upload an EICAR test file to see the infected path end to end.
+ */
+@Component
+@ConditionalOnProperty(name = "scan.type", havingValue = "fake", matchIfMissing = true)
+public class FakeVirusScanner implements VirusScanner {
+
+    private static final String EICAR = "X5O!P%@AP[4\\PZX54(P^)7CC)7}$EICAR-STANDARD-ANTIVIRUS-TEST-FILE!$H+H*";
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Override
+    public ScanResult scan(InputStream content) throws IOException {
+        // Searched chunk by chunk, keeping the previous chunk's tail so a match split across chunks is still found
+        String tail = "";
+        boolean found = false;
+        byte[] chunk = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = content.readNBytes(chunk, 0, chunk.length)) > 0) {
+            if (found) {
+                continue; // Keep reading: callers expect the stream consumed
+            }
+            String window = tail + new String(chunk, 0, read, StandardCharsets.ISO_8859_1);
+            found = window.contains(EICAR);
+            tail = window.substring(Math.max(0, window.length() - (EICAR.length() - 1)));
+        }
+        return found ? ScanResult.infected("Eicar-Test-Signature") : ScanResult.clean();
+    }
+}
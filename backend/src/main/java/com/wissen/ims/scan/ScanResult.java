@@ -0,0 +1,19 @@
+package com.wissen.ims.scan;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ScanResult {
+    private final boolean clean;
+    private final String signature; // Name of the malware found; null when clean
+
+    public static ScanResult clean() {
+        return new ScanResult(true, null);
+    }
+
+    public static ScanResult infected(String signature) {
+        return new ScanResult(false, signature);
+    }
+}
@@ -0,0 +1,16 @@
+package com.wissen.ims.scan;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Checks uploaded files for malware. The backend picks one implementation at startup through {@code scan.type}.
+ */
+public interface VirusScanner {
+
+    /**
+     * Reads {@code content} to the end and reports what the scanner found. Throws if the scanner could not be
+     * reached or gave up on the file, in which case the scan should be retried later.
+     */
+    ScanResult scan(InputStream content) throws IOException;
+}
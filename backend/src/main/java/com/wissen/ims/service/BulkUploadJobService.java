@@ -0,0 +1,199 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.dto.BulkUploadJobStatus;
+import com.wissen.ims.dto.BulkUploadResponse;
+import com.wissen.ims.model.CandidateImportCheckpoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs candidate CSV imports as background jobs on the bounded {@code csvImportExecutor}
+ * and keeps their progress in memory so clients can poll it.
+ */
+@Service
+@Slf4j
+public class BulkUploadJobService {
+
+    @Autowired
+    private CSVService csvService;
+
+    @Autowired
+    @Qualifier("csvImportExecutor")
+    private ThreadPoolTaskExecutor csvImportExecutor;
+
+    @Value("${csv.import.job-retention-minutes:60}")
+    private long jobRetentionMinutes;
+
+    private final Map<String, BulkUploadJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Spools the upload to a temporary file (the multipart body is gone once the request returns),
+     * hashing it on the way so a re-submitted file resumes from its checkpoint, and queues the import.
+     * Throws {@link TaskRejectedException} when the import queue is full.
+     */
+    public BulkUploadJobStatus submit(MultipartFile file, Long collegeId, String collegeName,
+                                      CandidateImportCheckpoint.ImportMode mode) throws IOException {
+        Path spooled = Files.createTempFile("candidate-import-", ".csv");
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(input, spooled, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        BulkUploadJob job = new BulkUploadJob(UUID.randomUUID().toString(), collegeId, collegeName,
+                file.getOriginalFilename(), spooled, HexFormat.of().formatHex(digest.digest()), mode);
+        jobs.put(job.id, job);
+
+        try {
+            csvImportExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        return toStatus(job, 0, 0);
+    }
+
+    public BulkUploadJobStatus getStatus(String jobId, int errorPage, int errorPageSize) {
+        BulkUploadJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new RuntimeException("Bulk upload job not found with id: " + jobId);
+        }
+        return toStatus(job, errorPage, errorPageSize);
+    }
+
+    private void run(BulkUploadJob job) {
+        job.startedAt = LocalDateTime.now();
+        job.state = "RUNNING";
+        log.info("Starting bulk upload job {} for college {} ({})", job.id, job.collegeName, job.fileName);
+
+        try (InputStream input = Files.newInputStream(job.file)) {
+            csvService.processCandidateCSV(input, job.contentHash, job.collegeId, job.collegeName, job.mode,
+                    job.response);
+            job.state = "COMPLETED";
+        } catch (Exception e) {
+            // Rows committed before the failure stay, and re-submitting the file resumes after them
+            job.response.addError("Failed to process CSV file: " + e.getMessage());
+            job.state = "FAILED";
+            log.error("Bulk upload job {} failed", job.id, e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(job.file);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled upload {}: {}", job.file, e.getMessage());
+            }
+        }
+
+        log.info("Bulk upload job {} {}: {} rows, {} created, {} updated, {} unchanged, {} errors", job.id, job.state,
+                job.response.getProcessedRows(), job.response.getInsertedCount(), job.response.getUpdatedCount(),
+                job.response.getUnchangedCount(), job.response.getFailureCount());
+    }
+
+    /**
+     * Finished jobs are kept for {@code csv.import.job-retention-minutes} so the client can fetch the result.
+     */
+    @Scheduled(fixedDelay = 300000)
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private BulkUploadJobStatus toStatus(BulkUploadJob job, int errorPage, int errorPageSize) {
+        BulkUploadResponse response = job.response;
+
+        BulkUploadJobStatus status = new BulkUploadJobStatus();
+        status.setJobId(job.id);
+        status.setState(job.state);
+        status.setCollegeId(job.collegeId);
+        status.setCollegeName(job.collegeName);
+        status.setFileName(job.fileName);
+        status.setRowsProcessed(response.getProcessedRows());
+        status.setRowsSkipped(response.getSkippedRows());
+        status.setMode(job.mode.name());
+        status.setSuccessCount(response.getSuccessCount());
+        status.setInsertedCount(response.getInsertedCount());
+        status.setUpdatedCount(response.getUpdatedCount());
+        status.setUnchangedCount(response.getUnchangedCount());
+        status.setErrorCount(response.getFailureCount());
+        status.setStageTimingsMs(response.getStageTimingsMs());
+        status.setSubmittedAt(job.submittedAt);
+        status.setStartedAt(job.startedAt);
+        status.setFinishedAt(job.finishedAt);
+
+        if (job.startedAt != null) {
+            LocalDateTime end = job.finishedAt != null ? job.finishedAt : LocalDateTime.now();
+            long elapsedMillis = Math.max(1, Duration.between(job.startedAt, end).toMillis());
+            status.setRowsPerSecond(response.getProcessedRows() * 1000.0 / elapsedMillis);
+        }
+
+        status.setErrorPage(errorPage);
+        status.setErrorPageSize(errorPageSize);
+        List<String> errors = response.getErrors();
+        synchronized (errors) {
+            int from = Math.min(errorPage * errorPageSize, errors.size());
+            int to = Math.min(from + errorPageSize, errors.size());
+            status.setErrors(new ArrayList<>(errors.subList(from, to)));
+        }
+        return status;
+    }
+
+    private static class BulkUploadJob {
+        private final String id;
+        private final Long collegeId;
+        private final String collegeName;
+        private final String fileName;
+        private final Path file;
+        private final String contentHash;
+        private final CandidateImportCheckpoint.ImportMode mode;
+        private final BulkUploadResponse response = new BulkUploadResponse();
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile String state = "QUEUED";
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+
+        BulkUploadJob(String id, Long collegeId, String collegeName, String fileName, Path file,
+                      String contentHash, CandidateImportCheckpoint.ImportMode mode) {
+            this.id = id;
+            this.collegeId = collegeId;
+            this.collegeName = collegeName;
+            this.fileName = fileName;
+            this.file = file;
+            this.contentHash = contentHash;
+            this.mode = mode;
+            // Pollers page through the messages while the worker is still appending to them
+            response.setErrors(Collections.synchronizedList(new ArrayList<>()));
+            response.setSuccessMessages(Collections.synchronizedList(new ArrayList<>()));
+        }
+    }
+}
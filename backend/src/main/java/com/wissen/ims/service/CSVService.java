@@ -2,156 +2,629 @@ package com.wissen.ims.service;
 
 import com.wissen.ims.dto.BulkUploadResponse;
 import com.wissen.ims.dto.CandidateCSVDTO;
+import com.wissen.ims.event.StatusChangedEvent;
 import com.wissen.ims.model.Candidate;
+import com.wissen.ims.model.CandidateImportCheckpoint;
+import com.wissen.ims.repository.CandidateImportCheckpointRepository;
 import com.wissen.ims.repository.CandidateRepository;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+/**
+ * Imports candidate CSV files through a staged pipeline, one chunk of {@code csv.import.batch-size} rows at a time:
+ * <ol>
+ *     <li>parse - records are read lazily from the stream</li>
+ *     <li>validate - field checks run in parallel across the chunk</li>
+ *     <li>file dedup - repeated emails within the file are caught by an in-memory index</li>
+ *     <li>db dedup - one {@code IN} query per chunk against existing candidates</li>
+ *     <li>persist - one JDBC batch insert per chunk</li>
+ * </ol>
+ * The time spent in each stage is reported in {@link BulkUploadResponse#getStageTimingsMs()}.
+ * <p>
+ * Progress is checkpointed per file (keyed on its SHA-256 and the college) in the same transaction as each
+ * chunk's inserts. Re-submitting a file whose import died halfway skips the rows already committed and
+ * carries on from the next chunk; re-submitting one whose import completed runs it again from the top.
+ */
 @Service
 public class CSVService {
 
+    private static final String INSERT_CANDIDATE_PREFIX =
+            "INSERT INTO candidates (name, email, phone, branch, cgpa, graduation_year, emergency_contact, " +
+            "address, resume_url, college_id, college_name, status, created_at, updated_at) VALUES ";
+
+    private static final String CANDIDATE_VALUES = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int CANDIDATE_PARAMS = 14;
+
+    // Rows per multi-row upsert statement; PostgreSQL allows at most 32767 bind parameters in one statement
+    private static final int UPSERT_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT_CANDIDATE_SQL = INSERT_CANDIDATE_PREFIX + CANDIDATE_VALUES;
+
+    // Optional columns missing from the sheet keep their stored value. The WHERE clause leaves other colleges'
+    // candidates alone and skips rows that would not change, so rows come back from RETURNING only when inserted
+    // (xmax = 0) or actually updated.
+    private static final String UPSERT_CANDIDATE_SUFFIX =
+            " ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name, phone = EXCLUDED.phone, " +
+            "branch = EXCLUDED.branch, cgpa = EXCLUDED.cgpa, " +
+            "graduation_year = COALESCE(EXCLUDED.graduation_year, candidates.graduation_year), " +
+            "emergency_contact = COALESCE(EXCLUDED.emergency_contact, candidates.emergency_contact), " +
+            "address = COALESCE(EXCLUDED.address, candidates.address), " +
+            "resume_url = COALESCE(EXCLUDED.resume_url, candidates.resume_url), " +
+            "updated_at = EXCLUDED.updated_at " +
+            "WHERE candidates.college_id = EXCLUDED.college_id " +
+            "AND (candidates.name, candidates.phone, candidates.branch, candidates.cgpa, candidates.graduation_year, " +
+            "candidates.emergency_contact, candidates.address, candidates.resume_url) " +
+            "IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.phone, EXCLUDED.branch, EXCLUDED.cgpa, " +
+            "COALESCE(EXCLUDED.graduation_year, candidates.graduation_year), " +
+            "COALESCE(EXCLUDED.emergency_contact, candidates.emergency_contact), " +
+            "COALESCE(EXCLUDED.address, candidates.address), " +
+            "COALESCE(EXCLUDED.resume_url, candidates.resume_url)) " +
+            "RETURNING email, (xmax = 0) AS inserted";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "email", "phone", "branch", "cgpa");
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@(.+)$");
+
+    private static final String STAGE_PARSE = "parse";
+    private static final String STAGE_VALIDATE = "validate";
+    private static final String STAGE_FILE_DEDUP = "fileDedup";
+    private static final String STAGE_DB_DEDUP = "dbDedup";
+    private static final String STAGE_PERSIST = "persist";
+
     @Autowired
     private CandidateRepository candidateRepository;
 
-    public BulkUploadResponse processCandidateCSV(MultipartFile file, Long collegeId, String collegeName) {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CandidateImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${csv.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${csv.import.lease-minutes:10}")
+    private long leaseMinutes;
+
+    public BulkUploadResponse processCandidateCSV(MultipartFile file, Long collegeId, String collegeName,
+                                                  CandidateImportCheckpoint.ImportMode mode) {
         BulkUploadResponse response = new BulkUploadResponse();
-        
         try {
-            List<CandidateCSVDTO> candidates = parseCSV(file);
-            response.setTotalRows(candidates.size());
-            
-            int rowNum = 2; // Starting from 2 because row 1 is header
-            for (CandidateCSVDTO dto : candidates) {
-                try {
-                    // Validate required fields
-                    if (!validateCandidate(dto, rowNum, response)) {
-                        rowNum++;
-                        continue;
-                    }
-                    
-                    // Check if candidate already exists
-                    if (candidateRepository.findByEmail(dto.getEmail()).isPresent()) {
-                        response.addError("Row " + rowNum + ": Email '" + dto.getEmail() + "' already exists");
-                        rowNum++;
-                        continue;
-                    }
-                    
-                    // Create candidate
-                    Candidate candidate = new Candidate();
-                    candidate.setName(dto.getName());
-                    candidate.setEmail(dto.getEmail());
-                    candidate.setPhone(dto.getPhone());
-                    candidate.setBranch(dto.getBranch());
-                    candidate.setCgpa(dto.getCgpa());
-                    candidate.setGraduationYear(dto.getGraduationYear());
-                    candidate.setEmergencyContact(dto.getEmergencyContact());
-                    candidate.setAddress(dto.getAddress());
-                    candidate.setResumeUrl(dto.getResumePath());
-                    candidate.setCollegeId(collegeId);
-                    candidate.setCollegeName(collegeName);
-                    candidate.setStatus(Candidate.CandidateStatus.APPLIED);
-                    
-                    candidateRepository.save(candidate);
-                    response.addSuccess("Row " + rowNum + ": Successfully created candidate " + dto.getName());
-                    
-                } catch (Exception e) {
-                    response.addError("Row " + rowNum + ": " + e.getMessage());
-                }
-                rowNum++;
+            String contentHash;
+            try (InputStream input = file.getInputStream()) {
+                contentHash = computeContentHash(input);
             }
-            
-        } catch (Exception e) {
+            try (InputStream input = file.getInputStream()) {
+                processCandidateCSV(input, contentHash, collegeId, collegeName, mode, response);
+            }
+        } catch (IOException | RuntimeException e) {
             response.addError("Failed to process CSV file: " + e.getMessage());
         }
-        
         return response;
     }
-    
-    private List<CandidateCSVDTO> parseCSV(MultipartFile file) throws Exception {
-        List<CandidateCSVDTO> candidates = new ArrayList<>();
-        
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
-            
-            CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
-                    .withFirstRecordAsHeader()
-                    .withIgnoreHeaderCase()
-                    .withTrim());
-            
-            for (CSVRecord record : csvParser) {
-                CandidateCSVDTO dto = new CandidateCSVDTO();
-                dto.setName(record.get("name"));
-                dto.setEmail(record.get("email"));
-                dto.setPhone(record.get("phone"));
-                dto.setBranch(record.get("branch"));
-                dto.setCgpa(record.get("cgpa"));
-                
-                // Optional fields
-                try {
-                    String gradYear = record.get("graduationYear");
-                    if (gradYear != null && !gradYear.trim().isEmpty()) {
-                        dto.setGraduationYear(Integer.parseInt(gradYear.trim()));
+
+    /**
+     * Streams the CSV one record at a time and imports it chunk by chunk, so neither heap usage nor
+     * database round trips grow with the number of rows in the file. Results are accumulated into
+     * {@code response} as each chunk completes, which lets callers observe progress while it runs.
+     * <p>
+     * Problems with a single row are reported in {@code response} and the import carries on. Anything that
+     * stops the whole file - an unreadable or malformed CSV, a missing column, the database going away - is
+     * thrown, with the rows committed so far kept and checkpointed.
+     */
+    public void processCandidateCSV(InputStream input, String contentHash, Long collegeId, String collegeName,
+                                    CandidateImportCheckpoint.ImportMode mode, BulkUploadResponse response)
+            throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             CSVParser csvParser = new CSVParser(reader, CSVFormat.DEFAULT
+                     .withFirstRecordAsHeader()
+                     .withIgnoreHeaderCase()
+                     .withTrim())) {
+
+            // Fail fast on a missing column rather than rejecting every row of the file one by one
+            Set<String> headers = csvParser.getHeaderNames().stream()
+                    .map(String::toLowerCase)
+                    .collect(Collectors.toSet());
+            for (String column : REQUIRED_COLUMNS) {
+                if (!headers.contains(column)) {
+                    throw new IllegalArgumentException("Mapping for " + column + " not found, expected one of "
+                            + csvParser.getHeaderNames());
+                }
+            }
+
+            String owner = UUID.randomUUID().toString();
+            ImportRun run = new ImportRun(collegeId, collegeName, mode, response,
+                    openCheckpoint(contentHash, collegeId, mode, owner), owner);
+            try {
+                Iterator<CSVRecord> records = csvParser.iterator();
+                skipCommittedRows(records, run);
+
+                List<CandidateCSVDTO> chunk;
+                while (!(chunk = parseChunk(records, run)).isEmpty()) {
+                    run.rowsConsumed += chunk.size();
+                    int insertedBefore = response.getInsertedCount();
+                    if (!importChunk(chunk, run)) {
+                        transactionTemplate.executeWithoutResult(status -> advanceCheckpoint(run));
+                    }
+                    response.addProcessedRows(chunk.size());
+
+                    // Rows go in over JDBC, so the dashboard counters have to be told about them here
+                    int inserted = response.getInsertedCount() - insertedBefore;
+                    if (inserted > 0) {
+                        eventPublisher.publishEvent(new StatusChangedEvent(Candidate.class, null,
+                                Candidate.CandidateStatus.APPLIED.name(), inserted));
                     }
-                } catch (Exception e) {
-                    // Ignore graduation year parsing errors
                 }
-                
-                try {
-                    dto.setEmergencyContact(record.get("emergencyContact"));
-                } catch (Exception e) {
-                    // Optional field
+
+                transactionTemplate.executeWithoutResult(status -> checkpointRepository.complete(
+                        run.checkpoint.getId(), owner, CandidateImportCheckpoint.ImportStatus.COMPLETED,
+                        LocalDateTime.now()));
+            } finally {
+                // A run that stopped early lets a re-submission resume at once; a completed one already released
+                transactionTemplate.executeWithoutResult(status -> checkpointRepository.release(
+                        run.checkpoint.getId(), owner));
+            }
+        }
+    }
+
+    /**
+     * SHA-256 of the file contents, used to recognise a re-submitted file.
+     */
+    public String computeContentHash(InputStream input) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (DigestInputStream digestInput = new DigestInputStream(input, digest)) {
+                digestInput.transferTo(OutputStream.nullOutputStream());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Finds the checkpoint of an interrupted import of this file, or starts a new one, and leases it to this run.
+     * A file whose import already completed is imported afresh, so uploading it again is not silently skipped.
+     * <p>
+     * Only one run at a time imports a given file for a college and mode: while another run holds the lease, and
+     * has advanced the checkpoint within {@code csv.import.lease-minutes}, the file is refused. A run that died
+     * without releasing its lease is taken over once the lease goes stale.
+     */
+    private CandidateImportCheckpoint openCheckpoint(String contentHash, Long collegeId,
+                                                     CandidateImportCheckpoint.ImportMode mode, String owner) {
+        Long id = findOrCreateCheckpoint(contentHash, collegeId, mode).getId();
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> checkpointRepository.claim(
+                id, owner, now, now.minusMinutes(leaseMinutes)));
+        if (claimed == null || claimed == 0) {
+            throw new IllegalStateException("This file is already being imported for this college");
+        }
+        // Read again under the lease, as the previous owner may have advanced it
+        CandidateImportCheckpoint checkpoint = checkpointRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Import checkpoint " + id + " disappeared"));
+        if (checkpoint.getStatus() == CandidateImportCheckpoint.ImportStatus.COMPLETED) {
+            transactionTemplate.executeWithoutResult(status -> checkpointRepository.restart(
+                    checkpoint.getId(), CandidateImportCheckpoint.ImportStatus.COMPLETED,
+                    CandidateImportCheckpoint.ImportStatus.IN_PROGRESS, LocalDateTime.now()));
+            checkpoint.setCommittedRows(0);
+            checkpoint.setStatus(CandidateImportCheckpoint.ImportStatus.IN_PROGRESS);
+        }
+        return checkpoint;
+    }
+
+    private CandidateImportCheckpoint findOrCreateCheckpoint(String contentHash, Long collegeId,
+                                                             CandidateImportCheckpoint.ImportMode mode) {
+        return checkpointRepository.findByContentHashAndCollegeIdAndImportMode(contentHash, collegeId, mode)
+                .orElseGet(() -> {
+                    CandidateImportCheckpoint checkpoint = new CandidateImportCheckpoint();
+                    checkpoint.setContentHash(contentHash);
+                    checkpoint.setCollegeId(collegeId);
+                    checkpoint.setImportMode(mode);
+                    try {
+                        return checkpointRepository.save(checkpoint);
+                    } catch (DataIntegrityViolationException e) {
+                        // The same file was submitted concurrently and the other run created the checkpoint first
+                        return checkpointRepository.findByContentHashAndCollegeIdAndImportMode(
+                                contentHash, collegeId, mode).orElseThrow(() -> e);
+                    }
+                });
+    }
+
+    /**
+     * Fast-forwards past rows committed by an earlier attempt. Their emails still go into the in-file
+     * dedup index so later repeats in the file are reported the same way as on a clean run.
+     */
+    private void skipCommittedRows(Iterator<CSVRecord> records, ImportRun run) {
+        int committedRows = run.checkpoint.getCommittedRows();
+        while (run.rowsConsumed < committedRows && records.hasNext()) {
+            CSVRecord record = records.next();
+            run.rowsConsumed++;
+            if (record.isSet("email")) {
+                run.seenEmails.add(record.get("email"));
+            }
+        }
+        run.response.setSkippedRows(run.rowsConsumed);
+        run.response.setTotalRows(run.rowsConsumed);
+    }
+
+    /**
+     * Records that every row consumed so far has been committed, renewing the run's lease. Must run inside a
+     * transaction, which is rolled back if another run has taken the lease over meanwhile.
+     */
+    private void advanceCheckpoint(ImportRun run) {
+        if (checkpointRepository.advance(run.checkpoint.getId(), run.owner, run.rowsConsumed,
+                LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Another run took over this file's import");
+        }
+    }
+
+    private List<CandidateCSVDTO> parseChunk(Iterator<CSVRecord> records, ImportRun run) {
+        long start = System.nanoTime();
+        List<CandidateCSVDTO> chunk = new ArrayList<>(batchSize);
+        while (chunk.size() < batchSize && records.hasNext()) {
+            chunk.add(parseRecord(records.next()));
+        }
+        run.response.setTotalRows(run.response.getTotalRows() + chunk.size());
+        run.response.addStageTime(STAGE_PARSE, System.nanoTime() - start);
+        return chunk;
+    }
+
+    private CandidateCSVDTO parseRecord(CSVRecord record) {
+        CandidateCSVDTO dto = new CandidateCSVDTO();
+        // Record numbers start at 1 for the first data row; row 1 of the sheet is the header
+        dto.setRowNumber((int) record.getRecordNumber() + 1);
+
+        try {
+            dto.setName(record.get("name"));
+            dto.setEmail(record.get("email"));
+            dto.setPhone(record.get("phone"));
+            dto.setBranch(record.get("branch"));
+            dto.setCgpa(record.get("cgpa"));
+        } catch (Exception e) {
+            // Short or malformed record; reported against its own row instead of aborting the file
+            dto.setErrorMessage(e.getMessage());
+            return dto;
+        }
+
+        // Optional fields
+        try {
+            String gradYear = record.get("graduationYear");
+            if (gradYear != null && !gradYear.trim().isEmpty()) {
+                dto.setGraduationYear(Integer.parseInt(gradYear.trim()));
+            }
+        } catch (Exception e) {
+            // Ignore graduation year parsing errors
+        }
+
+        try {
+            dto.setEmergencyContact(record.get("emergencyContact"));
+        } catch (Exception e) {
+            // Optional field
+        }
+
+        try {
+            dto.setAddress(record.get("address"));
+        } catch (Exception e) {
+            // Optional field
+        }
+
+        try {
+            dto.setResumePath(record.get("resumePath"));
+        } catch (Exception e) {
+            // Optional field
+        }
+
+        return dto;
+    }
+
+    /**
+     * Runs one chunk through the pipeline. Returns true when the checkpoint was advanced together with
+     * the chunk's writes, false when nothing was written and the caller still has to advance it.
+     */
+    private boolean importChunk(List<CandidateCSVDTO> chunk, ImportRun run) {
+        BulkUploadResponse response = run.response;
+
+        // Validate: the checks are independent per row, so spread them across cores
+        long start = System.nanoTime();
+        chunk.parallelStream()
+                .filter(dto -> !dto.hasError())
+                .forEach(dto -> dto.setErrorMessage(validateCandidate(dto)));
+        List<CandidateCSVDTO> valid = new ArrayList<>(chunk.size());
+        for (CandidateCSVDTO dto : chunk) {
+            if (dto.hasError()) {
+                response.addError("Row " + dto.getRowNumber() + ": " + dto.getErrorMessage());
+            } else {
+                valid.add(dto);
+            }
+        }
+        response.addStageTime(STAGE_VALIDATE, System.nanoTime() - start);
+
+        // File dedup: the first occurrence of an email in the file wins
+        start = System.nanoTime();
+        List<CandidateCSVDTO> unique = new ArrayList<>(valid.size());
+        for (CandidateCSVDTO dto : valid) {
+            if (run.seenEmails.add(dto.getEmail())) {
+                unique.add(dto);
+            } else if (run.mode == CandidateImportCheckpoint.ImportMode.UPSERT) {
+                response.addError("Row " + dto.getRowNumber() + ": Email '" + dto.getEmail()
+                        + "' appears more than once in the file; only its first row was imported");
+            } else {
+                response.addError("Row " + dto.getRowNumber() + ": Email '" + dto.getEmail() + "' already exists");
+            }
+        }
+        response.addStageTime(STAGE_FILE_DEDUP, System.nanoTime() - start);
+        if (unique.isEmpty()) {
+            return false;
+        }
+
+        if (run.mode == CandidateImportCheckpoint.ImportMode.UPSERT) {
+            // Existing emails are the point of an upsert, but only this college's candidates may be updated
+            start = System.nanoTime();
+            Set<String> otherColleges = new HashSet<>(candidateRepository.findEmailsOfOtherColleges(
+                    unique.stream().map(CandidateCSVDTO::getEmail).collect(Collectors.toSet()), run.collegeId));
+            List<CandidateCSVDTO> toUpsert = new ArrayList<>(unique.size());
+            for (CandidateCSVDTO dto : unique) {
+                if (otherColleges.contains(dto.getEmail())) {
+                    response.addError("Row " + dto.getRowNumber() + ": Email '" + dto.getEmail()
+                            + "' belongs to a candidate of another college");
+                } else {
+                    toUpsert.add(dto);
                 }
-                
-                try {
-                    dto.setAddress(record.get("address"));
-                } catch (Exception e) {
-                    // Optional field
+            }
+            response.addStageTime(STAGE_DB_DEDUP, System.nanoTime() - start);
+            if (toUpsert.isEmpty()) {
+                return false;
+            }
+
+            start = System.nanoTime();
+            boolean checkpointed = upsert(toUpsert, run);
+            response.addStageTime(STAGE_PERSIST, System.nanoTime() - start);
+            return checkpointed;
+        }
+
+        // DB dedup: one lookup for the whole chunk instead of one findByEmail per row
+        start = System.nanoTime();
+        Set<String> existingEmails = new HashSet<>(candidateRepository.findExistingEmails(
+                unique.stream().map(CandidateCSVDTO::getEmail).collect(Collectors.toSet())));
+        List<CandidateCSVDTO> toInsert = new ArrayList<>(unique.size());
+        for (CandidateCSVDTO dto : unique) {
+            if (existingEmails.contains(dto.getEmail())) {
+                response.addError("Row " + dto.getRowNumber() + ": Email '" + dto.getEmail() + "' already exists");
+            } else {
+                toInsert.add(dto);
+            }
+        }
+        response.addStageTime(STAGE_DB_DEDUP, System.nanoTime() - start);
+        if (toInsert.isEmpty()) {
+            return false;
+        }
+
+        start = System.nanoTime();
+        boolean checkpointed = persist(toInsert, run);
+        response.addStageTime(STAGE_PERSIST, System.nanoTime() - start);
+        return checkpointed;
+    }
+
+    private boolean persist(List<CandidateCSVDTO> toInsert, ImportRun run) {
+        BulkUploadResponse response = run.response;
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_CANDIDATE_SQL, toInsert, toInsert.size(),
+                        (ps, dto) -> bindCandidate(ps, dto, run, now));
+                advanceCheckpoint(run);
+            });
+            for (CandidateCSVDTO dto : toInsert) {
+                response.addInserted("Row " + dto.getRowNumber() + ": Successfully created candidate " + dto.getName());
+            }
+            return true;
+        } catch (DataIntegrityViolationException batchFailure) {
+            // The batch was rolled back as a whole; retry row by row so each failure is reported against its own row.
+            // Only a row's own data can be at fault here; anything else ends the import
+            for (RowOutcome<Integer> outcome : writeRowByRow(toInsert, run,
+                    dto -> jdbcTemplate.update(INSERT_CANDIDATE_SQL, ps -> bindCandidate(ps, dto, run, now)))) {
+                CandidateCSVDTO dto = outcome.row();
+                if (outcome.error() != null) {
+                    response.addError("Row " + dto.getRowNumber() + ": " + outcome.error());
+                } else {
+                    response.addInserted("Row " + dto.getRowNumber() + ": Successfully created candidate "
+                            + dto.getName());
                 }
-                
-                try {
-                    dto.setResumePath(record.get("resumePath"));
-                } catch (Exception e) {
-                    // Optional field
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Writes the chunk with multi-row upserts of up to {@value #UPSERT_ROWS_PER_STATEMENT} rows. Emails returned
+     * with {@code inserted = true} are new, the rest of those returned were updated, and emails not returned at all
+     * matched the stored row.
+     */
+    private boolean upsert(List<CandidateCSVDTO> rows, ImportRun run) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Map<String, Boolean> written = transactionTemplate.execute(status -> {
+                Map<String, Boolean> result = upsertRows(rows, run, now);
+                advanceCheckpoint(run);
+                return result;
+            });
+            for (CandidateCSVDTO dto : rows) {
+                reportUpsert(dto, written, run.response);
+            }
+            return true;
+        } catch (DataIntegrityViolationException batchFailure) {
+            // Same fallback as the insert path: one statement per row so the failing row can be identified
+            for (RowOutcome<Map<String, Boolean>> outcome : writeRowByRow(rows, run,
+                    dto -> upsertRows(List.of(dto), run, now))) {
+                CandidateCSVDTO dto = outcome.row();
+                if (outcome.error() != null) {
+                    run.response.addError("Row " + dto.getRowNumber() + ": " + outcome.error());
+                } else {
+                    reportUpsert(dto, outcome.result(), run.response);
                 }
-                
-                candidates.add(dto);
             }
+            return true;
+        }
+    }
+
+    /**
+     * Writes the rows one statement each, in one transaction that also advances the checkpoint. Every row runs
+     * under its own savepoint, so a row that breaks a constraint is undone and reported on its own while the rest
+     * commit together with the checkpoint; a resumed import never meets rows it wrote itself.
+     */
+    private <R> List<RowOutcome<R>> writeRowByRow(List<CandidateCSVDTO> rows, ImportRun run,
+                                                  Function<CandidateCSVDTO, R> write) {
+        return transactionTemplate.execute(status -> {
+            ConnectionCallback<List<RowOutcome<R>>> eachRow = connection -> {
+                List<RowOutcome<R>> results = new ArrayList<>(rows.size());
+                for (CandidateCSVDTO dto : rows) {
+                    Savepoint savepoint = connection.setSavepoint();
+                    try {
+                        R result = write.apply(dto);
+                        connection.releaseSavepoint(savepoint);
+                        results.add(new RowOutcome<>(dto, result, null));
+                    } catch (DataIntegrityViolationException e) {
+                        connection.rollback(savepoint);
+                        results.add(new RowOutcome<>(dto, null, e.getMessage()));
+                    }
+                }
+                return results;
+            };
+            // Runs on the transaction's own connection
+            List<RowOutcome<R>> outcomes = jdbcTemplate.execute(eachRow);
+            advanceCheckpoint(run);
+            return outcomes;
+        });
+    }
+
+    private Map<String, Boolean> upsertRows(List<CandidateCSVDTO> rows, ImportRun run, LocalDateTime now) {
+        Map<String, Boolean> written = new HashMap<>();
+        for (int from = 0; from < rows.size(); from += UPSERT_ROWS_PER_STATEMENT) {
+            List<CandidateCSVDTO> part = rows.subList(from, Math.min(from + UPSERT_ROWS_PER_STATEMENT, rows.size()));
+            String sql = INSERT_CANDIDATE_PREFIX
+                    + String.join(", ", Collections.nCopies(part.size(), CANDIDATE_VALUES)) + UPSERT_CANDIDATE_SUFFIX;
+            jdbcTemplate.query(sql, ps -> {
+                int offset = 0;
+                for (CandidateCSVDTO dto : part) {
+                    bindCandidate(ps, offset, dto, run, now);
+                    offset += CANDIDATE_PARAMS;
+                }
+            }, rs -> {
+                written.put(rs.getString("email"), rs.getBoolean("inserted"));
+            });
+        }
+        return written;
+    }
+
+    private void reportUpsert(CandidateCSVDTO dto, Map<String, Boolean> written, BulkUploadResponse response) {
+        Boolean inserted = written.get(dto.getEmail());
+        if (inserted == null) {
+            response.addUnchanged("Row " + dto.getRowNumber() + ": Candidate " + dto.getName() + " is already up to date");
+        } else if (inserted) {
+            response.addInserted("Row " + dto.getRowNumber() + ": Successfully created candidate " + dto.getName());
+        } else {
+            response.addUpdated("Row " + dto.getRowNumber() + ": Successfully updated candidate " + dto.getName());
+        }
+    }
+
+    private void bindCandidate(PreparedStatement ps, CandidateCSVDTO dto, ImportRun run,
+                               LocalDateTime now) throws SQLException {
+        bindCandidate(ps, 0, dto, run, now);
+    }
+
+    private void bindCandidate(PreparedStatement ps, int offset, CandidateCSVDTO dto, ImportRun run,
+                               LocalDateTime now) throws SQLException {
+        ps.setString(offset + 1, dto.getName());
+        ps.setString(offset + 2, dto.getEmail());
+        ps.setString(offset + 3, dto.getPhone());
+        ps.setString(offset + 4, dto.getBranch());
+        ps.setString(offset + 5, dto.getCgpa());
+        if (dto.getGraduationYear() != null) {
+            ps.setInt(offset + 6, dto.getGraduationYear());
+        } else {
+            ps.setNull(offset + 6, Types.INTEGER);
         }
-        
-        return candidates;
+        ps.setString(offset + 7, dto.getEmergencyContact());
+        ps.setString(offset + 8, dto.getAddress());
+        ps.setString(offset + 9, dto.getResumePath());
+        ps.setLong(offset + 10, run.collegeId);
+        ps.setString(offset + 11, run.collegeName);
+        ps.setString(offset + 12, Candidate.CandidateStatus.APPLIED.name());
+        ps.setTimestamp(offset + 13, Timestamp.valueOf(now));
+        ps.setTimestamp(offset + 14, Timestamp.valueOf(now));
     }
-    
-    private boolean validateCandidate(CandidateCSVDTO dto, int rowNum, BulkUploadResponse response) {
+
+    /**
+     * Returns the row's validation errors joined into one message, or null when the row is valid.
+     * Only reads the row, so it is safe to call from a parallel stream.
+     */
+    private String validateCandidate(CandidateCSVDTO dto) {
         List<String> errors = new ArrayList<>();
-        
+
         if (dto.getName() == null || dto.getName().trim().isEmpty()) {
             errors.add("Name is required");
         }
-        
+
         if (dto.getEmail() == null || dto.getEmail().trim().isEmpty()) {
             errors.add("Email is required");
-        } else if (!dto.getEmail().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        } else if (!EMAIL_PATTERN.matcher(dto.getEmail()).matches()) {
             errors.add("Invalid email format");
         }
-        
+
         if (dto.getPhone() == null || dto.getPhone().trim().isEmpty()) {
             errors.add("Phone is required");
         }
-        
+
         if (dto.getBranch() == null || dto.getBranch().trim().isEmpty()) {
             errors.add("Branch is required");
         }
-        
+
         if (dto.getCgpa() == null || dto.getCgpa().trim().isEmpty()) {
             errors.add("CGPA is required");
         } else {
@@ -164,12 +637,35 @@ public class CSVService {
                 errors.add("Invalid CGPA format");
             }
         }
-        
-        if (!errors.isEmpty()) {
-            response.addError("Row " + rowNum + ": " + String.join(", ", errors));
-            return false;
+
+        return errors.isEmpty() ? null : String.join(", ", errors);
+    }
+
+    private record RowOutcome<R>(CandidateCSVDTO row, R result, String error) {
+    }
+
+    /**
+     * State that lives for one file: the target college, the import mode, the running response, the
+     * checkpoint, the number of data rows read so far and the email index used for in-file dedup.
+     */
+    private static class ImportRun {
+        private final Long collegeId;
+        private final String collegeName;
+        private final CandidateImportCheckpoint.ImportMode mode;
+        private final BulkUploadResponse response;
+        private final CandidateImportCheckpoint checkpoint;
+        private final String owner; // Lease token held on the checkpoint
+        private final Set<String> seenEmails = new HashSet<>();
+        private int rowsConsumed;
+
+        ImportRun(Long collegeId, String collegeName, CandidateImportCheckpoint.ImportMode mode,
+                  BulkUploadResponse response, CandidateImportCheckpoint checkpoint, String owner) {
+            this.collegeId = collegeId;
+            this.collegeName = collegeName;
+            this.mode = mode;
+            this.response = response;
+            this.checkpoint = checkpoint;
+            this.owner = owner;
         }
-        
-        return true;
     }
 }
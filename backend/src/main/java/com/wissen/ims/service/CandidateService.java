@@ -1,5 +1,8 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.dto.CandidateSummary;
+import com.wissen.ims.dto.PageResponse;
+import com.wissen.ims.event.StatusChangedEvent;
 import com.wissen.ims.model.Candidate;
 import com.wissen.ims.model.Intern;
 import com.wissen.ims.model.User;
@@ -7,6 +10,10 @@ import com.wissen.ims.repository.CandidateRepository;
 import com.wissen.ims.repository.InternRepository;
 import com.wissen.ims.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,6 +26,9 @@ import java.util.List;
 @Transactional
 public class CandidateService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CandidateRepository candidateRepository;
 
@@ -45,6 +55,15 @@ public class CandidateService {
         return candidateRepository.findAll();
     }
 
+    public PageResponse<CandidateSummary> getCandidatesPage(Pageable pageable) {
+        return PageResponse.of(candidateRepository.findSummaries(pageable), CandidateSummary::getId);
+    }
+
+    public PageResponse<CandidateSummary> getCandidatesAfter(Long cursor, int size) {
+        return PageResponse.of(candidateRepository.findSummariesByIdLessThan(cursor,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))), CandidateSummary::getId);
+    }
+
     public Candidate getCandidateById(Long id) {
         return candidateRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Candidate not found with id: " + id));
@@ -79,6 +98,7 @@ public class CandidateService {
         
         // Save candidate first
         Candidate savedCandidate = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(StatusChangedEvent.created(Candidate.class, savedCandidate.getStatus()));
         
         // Note: We don't create user accounts for candidates yet
         // User accounts will be created when they are converted to interns
@@ -88,6 +108,7 @@ public class CandidateService {
 
     public Candidate updateCandidate(Long id, Candidate candidateDetails) {
         Candidate candidate = getCandidateById(id);
+        Candidate.CandidateStatus previousStatus = candidate.getStatus();
         
         candidate.setName(candidateDetails.getName());
         candidate.setEmail(candidateDetails.getEmail());
@@ -103,22 +124,28 @@ public class CandidateService {
         candidate.setHiringScore(candidateDetails.getHiringScore());
         candidate.setStatus(candidateDetails.getStatus());
 
-        return candidateRepository.save(candidate);
+        Candidate savedCandidate = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Candidate.class, previousStatus, savedCandidate.getStatus()));
+        return savedCandidate;
     }
 
     public Candidate updateCandidateStatus(Long id, Candidate.CandidateStatus status) {
         Candidate candidate = getCandidateById(id);
+        Candidate.CandidateStatus previousStatus = candidate.getStatus();
         candidate.setStatus(status);
-        return candidateRepository.save(candidate);
+        Candidate savedCandidate = candidateRepository.save(candidate);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Candidate.class, previousStatus, status));
+        return savedCandidate;
     }
 
     public void deleteCandidate(Long id) {
         Candidate candidate = getCandidateById(id);
         candidateRepository.delete(candidate);
+        eventPublisher.publishEvent(StatusChangedEvent.deleted(Candidate.class, candidate.getStatus()));
     }
 
     public long countByStatus(Candidate.CandidateStatus status) {
-        return candidateRepository.findByStatus(status).size();
+        return candidateRepository.countByStatus(status);
     }
 
     /**
@@ -171,6 +198,7 @@ public class CandidateService {
         intern.setStatus(Intern.InternStatus.DOCUMENT_PENDING);
         
         Intern savedIntern = internRepository.save(intern);
+        eventPublisher.publishEvent(StatusChangedEvent.created(Intern.class, savedIntern.getStatus()));
         
         // Generate random password for intern user
         String generatedPassword = generateSecurePassword(12);
@@ -195,8 +223,11 @@ public class CandidateService {
         );
         
         // Update candidate status to SELECTED
+        Candidate.CandidateStatus previousStatus = candidate.getStatus();
         candidate.setStatus(Candidate.CandidateStatus.SELECTED);
         candidateRepository.save(candidate);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Candidate.class, previousStatus,
+                Candidate.CandidateStatus.SELECTED));
         
         return savedIntern;
     }
@@ -1,10 +1,16 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.dto.PageResponse;
+import com.wissen.ims.event.StatusChangedEvent;
 import com.wissen.ims.model.College;
 import com.wissen.ims.model.User;
 import com.wissen.ims.repository.CollegeRepository;
 import com.wissen.ims.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +22,9 @@ import java.util.List;
 @Transactional
 public class CollegeService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CollegeRepository collegeRepository;
 
@@ -39,6 +48,15 @@ public class CollegeService {
         return collegeRepository.findAll();
     }
 
+    public PageResponse<College> getCollegesPage(Pageable pageable) {
+        return PageResponse.of(collegeRepository.findAll(pageable), College::getId);
+    }
+
+    public PageResponse<College> getCollegesAfter(Long cursor, int size) {
+        return PageResponse.of(collegeRepository.findByIdLessThan(cursor,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))), College::getId);
+    }
+
     public College getCollegeById(Long id) {
         return collegeRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("College not found with id: " + id));
@@ -60,6 +78,7 @@ public class CollegeService {
         
         // Save college first
         College savedCollege = collegeRepository.save(college);
+        eventPublisher.publishEvent(StatusChangedEvent.created(College.class, savedCollege.getStatus()));
         
         // Generate random password for college user
         String generatedPassword = generateSecurePassword(12);
@@ -126,14 +145,18 @@ public class CollegeService {
         college.setPhone(collegeDetails.getPhone());
         college.setVisitDate(collegeDetails.getVisitDate());
         college.setSlots(collegeDetails.getSlots());
+        College.VisitStatus previousStatus = college.getStatus();
         college.setStatus(collegeDetails.getStatus());
         college.setNotes(collegeDetails.getNotes());
 
-        return collegeRepository.save(college);
+        College savedCollege = collegeRepository.save(college);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(College.class, previousStatus, savedCollege.getStatus()));
+        return savedCollege;
     }
 
     public void deleteCollege(Long id) {
         College college = getCollegeById(id);
         collegeRepository.delete(college);
+        eventPublisher.publishEvent(StatusChangedEvent.deleted(College.class, college.getStatus()));
     }
 }
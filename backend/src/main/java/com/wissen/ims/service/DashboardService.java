@@ -0,0 +1,125 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.event.StatusChangedEvent;
+import com.wissen.ims.model.Candidate;
+import com.wissen.ims.model.College;
+import com.wissen.ims.model.Intern;
+import com.wissen.ims.model.Offer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serves dashboard stats from in-memory counters, one {@link LongAdder} per entity and status.
+ * The counters move with every {@link StatusChangedEvent} once its transaction commits, and are
+ * rebuilt from the database on a schedule to correct any drift from writes that bypass the services.
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    // Row counts per table and status in one statement, so a reconciliation costs a single round trip
+    // and never loads the rows themselves
+    private static final String STATUS_COUNTS_SQL =
+            "SELECT 'College' AS entity, status, COUNT(*) AS total FROM colleges GROUP BY status " +
+            "UNION ALL SELECT 'Candidate', status, COUNT(*) FROM candidates GROUP BY status " +
+            "UNION ALL SELECT 'Intern', status, COUNT(*) FROM interns GROUP BY status " +
+            "UNION ALL SELECT 'Offer', status, COUNT(*) FROM offers GROUP BY status";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Entity simple name -> status -> count; replaced wholesale by each reconciliation
+    private volatile Map<String, Map<String, LongAdder>> counters;
+
+    public Map<String, Object> getDashboardStats() {
+        if (counters == null) {
+            reconcile();
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+
+        // College stats
+        stats.put("totalColleges", total(College.class));
+
+        // Candidate stats (applicants not yet converted to interns)
+        stats.put("totalCandidates", total(Candidate.class));
+        stats.put("appliedCandidates", count(Candidate.class, Candidate.CandidateStatus.APPLIED));
+        stats.put("interviewingCandidates", count(Candidate.class, Candidate.CandidateStatus.INTERVIEWING));
+        stats.put("selectedCandidates", count(Candidate.class, Candidate.CandidateStatus.SELECTED));
+
+        // Intern stats (selected candidates who have joined)
+        stats.put("totalInterns", total(Intern.class));
+        stats.put("activeInterns", count(Intern.class, Intern.InternStatus.ACTIVE));
+        stats.put("onboardingInterns", count(Intern.class, Intern.InternStatus.ONBOARDING));
+        stats.put("documentPending", count(Intern.class, Intern.InternStatus.DOCUMENT_PENDING));
+
+        // Offer stats
+        stats.put("totalOffers", total(Offer.class));
+        stats.put("generatedOffers", count(Offer.class, Offer.OfferStatus.GENERATED));
+        stats.put("sentOffers", count(Offer.class, Offer.OfferStatus.SENT));
+        stats.put("acceptedOffers", count(Offer.class, Offer.OfferStatus.ACCEPTED));
+
+        return stats;
+    }
+
+    /**
+     * Applies a committed status transition. Events published outside a transaction are applied straight away.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(StatusChangedEvent event) {
+        Map<String, Map<String, LongAdder>> snapshot = counters;
+        if (snapshot == null || Objects.equals(event.getFromStatus(), event.getToStatus())) {
+            return;
+        }
+
+        Map<String, LongAdder> byStatus = snapshot.computeIfAbsent(event.getEntityType().getSimpleName(),
+                entity -> new ConcurrentHashMap<>());
+        if (event.getFromStatus() != null) {
+            byStatus.computeIfAbsent(event.getFromStatus(), status -> new LongAdder()).add(-event.getCount());
+        }
+        if (event.getToStatus() != null) {
+            byStatus.computeIfAbsent(event.getToStatus(), status -> new LongAdder()).add(event.getCount());
+        }
+    }
+
+    /**
+     * Rebuilds the counters from the database. A transition that commits while the query runs can be
+     * missed or counted twice; the next run corrects it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${dashboard.reconcile-interval-ms:300000}")
+    public synchronized void reconcile() {
+        Map<String, Map<String, LongAdder>> fresh = new ConcurrentHashMap<>();
+        jdbcTemplate.query(STATUS_COUNTS_SQL, rs -> {
+            LongAdder adder = new LongAdder();
+            adder.add(rs.getLong("total"));
+            fresh.computeIfAbsent(rs.getString("entity"), entity -> new ConcurrentHashMap<>())
+                    .put(String.valueOf(rs.getString("status")), adder);
+        });
+        counters = fresh;
+        log.debug("Dashboard counters reconciled: {}", fresh);
+    }
+
+    private long total(Class<?> entityType) {
+        Map<String, LongAdder> byStatus = counters.getOrDefault(entityType.getSimpleName(), Map.of());
+        return Math.max(0, byStatus.values().stream().mapToLong(LongAdder::sum).sum());
+    }
+
+    private long count(Class<?> entityType, Enum<?> status) {
+        LongAdder adder = counters.getOrDefault(entityType.getSimpleName(), Map.of()).get(status.name());
+        return adder == null ? 0 : Math.max(0, adder.sum());
+    }
+}
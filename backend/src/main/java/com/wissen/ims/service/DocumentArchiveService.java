@@ -0,0 +1,323 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.model.Document;
+import com.wissen.ims.model.DocumentArchiveEntry;
+import com.wissen.ims.model.Intern;
+import com.wissen.ims.repository.DocumentRepository;
+import com.wissen.ims.storage.ArchiveEntryResource;
+import com.wissen.ims.storage.ObjectStorage;
+import com.wissen.ims.storage.StorageKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Moves the verified documents of interns who have finished (COMPLETED or TERMINATED) into cold storage: one zip
+ * archive per intern at {@code archives/interns/<id>/documents_<timestamp>.zip}, with an {@code index.csv} entry
+ * listing what each entry is. The individual files are then released (shared blobs by the storage GC, once nothing
+ * else points at them), so a graduated cohort costs one object per intern instead of one per document.
+ * <p>
+ * Archived documents still download as before: {@link #open} streams a single entry straight out of the archive
+ * with a ranged read.
+ */
+@Slf4j
+@Service
+public class DocumentArchiveService {
+
+    private static final Set<Intern.InternStatus> FINISHED_STATUSES =
+            Set.of(Intern.InternStatus.COMPLETED, Intern.InternStatus.TERMINATED);
+    private static final DateTimeFormatter ARCHIVE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static final String INDEX_ENTRY = "index.csv";
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("storageMaintenanceExecutor")
+    private ThreadPoolTaskExecutor maintenanceExecutor;
+
+    @Value("${document.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${document.archive.interns-per-run:50}")
+    private int internsPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${document.archive.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Archives finished interns in the background, on {@code storageMaintenanceExecutor}, rather than on a
+     * scheduler or request thread.
+     *
+     * @return false if a run is already going on this node or the maintenance executor is full
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            maintenanceExecutor.execute(() -> {
+                try {
+                    archiveFinishedInterns();
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            log.warn("Document archival not started: the maintenance executor is full");
+            return false;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Archives up to {@code document.archive.interns-per-run} finished interns.
+     *
+     * @return how many interns had documents archived
+     */
+    public int archiveFinishedInterns() {
+        List<Long> internIds = documentRepository.findInternIdsToArchive(FINISHED_STATUSES,
+                Document.DocumentStatus.VERIFIED, PageRequest.of(0, internsPerRun));
+
+        int archived = 0;
+        for (Long internId : internIds) {
+            try {
+                if (archiveIntern(internId) > 0) {
+                    archived++;
+                }
+            } catch (Exception e) {
+                log.error("Failed to archive documents of intern {}: {}", internId, e.getMessage(), e);
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived the documents of {} finished interns", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * Packs the intern's verified, not yet archived documents into a new archive and releases their files.
+     *
+     * @return how many documents were archived
+     */
+    public int archiveIntern(Long internId) throws IOException {
+        List<Document> documents = documentRepository.findByInternIdOrderByIdAsc(internId).stream()
+                .filter(document -> document.getStatus() == Document.DocumentStatus.VERIFIED && !document.isArchived())
+                .toList();
+        if (documents.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, String> filePaths = new LinkedHashMap<>();
+        for (Document document : documents) {
+            filePaths.put(document.getId(), document.getFilePath());
+        }
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        String archiveKey = "archives/interns/" + internId + "/documents_" + archivedAt.format(ARCHIVE_TIMESTAMP) + ".zip";
+
+        // Built in a local file first: entry offsets are only known once written, and storage takes a stream
+        Path tmp = Files.createTempFile("intern-archive-", ".zip");
+        Map<Long, DocumentArchiveEntry> entries;
+        try {
+            entries = writeArchive(documents, archiveKey, archivedAt, tmp);
+            try (InputStream in = Files.newInputStream(tmp)) {
+                objectStorage.put(archiveKey, in, "application/zip");
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        List<Document> archived = transactionTemplate.execute(status -> {
+            List<Document> updated = new ArrayList<>();
+            for (Document document : documentRepository.findAllById(entries.keySet())) {
+                // Skip anything deleted, changed or archived elsewhere while the archive was being written
+                if (!document.isArchived() && document.getStatus() == Document.DocumentStatus.VERIFIED
+                        && document.getFilePath().equals(filePaths.get(document.getId()))) {
+                    document.setArchive(entries.get(document.getId()));
+                    updated.add(document);
+                }
+            }
+            return documentRepository.saveAll(updated);
+        });
+
+        if (archived.isEmpty()) {
+            objectStorage.delete(archiveKey);
+            return 0;
+        }
+        releaseFiles(archived);
+        log.info("Archived {} documents of intern {} into {}", archived.size(), internId, archiveKey);
+        return archived.size();
+    }
+
+    /**
+     * The document's file, read from its archive if it has been archived.
+     */
+    public Resource open(Document document) {
+        DocumentArchiveEntry entry = document.getArchive();
+        if (entry == null) {
+            return objectStorage.get(document.getFilePath());
+        }
+        return new ArchiveEntryResource(objectStorage, entry.getArchiveKey(), entry.getEntryName(),
+                entry.getDataOffset(), entry.getCompressedSize(), entry.getSize(),
+                entry.getArchivedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    /**
+     * Deletes the archive an archived document lived in, once no other document uses it.
+     */
+    public void releaseArchive(Document document) throws IOException {
+        String archiveKey = document.getArchive().getArchiveKey();
+        if (documentRepository.countByArchiveKey(archiveKey) == 0) {
+            objectStorage.delete(archiveKey);
+        }
+    }
+
+    private Map<Long, DocumentArchiveEntry> writeArchive(List<Document> documents, String archiveKey,
+                                                         LocalDateTime archivedAt, Path target) throws IOException {
+        Map<Long, DocumentArchiveEntry> entries = new LinkedHashMap<>();
+        // Documents sharing a deduplicated blob share one entry
+        Map<String, DocumentArchiveEntry> entriesByFile = new LinkedHashMap<>();
+
+        try (CountingOutputStream out = new CountingOutputStream(new BufferedOutputStream(Files.newOutputStream(target)));
+             ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Document document : documents) {
+                DocumentArchiveEntry entry = entriesByFile.get(document.getFilePath());
+                if (entry == null) {
+                    String entryName = document.getId() + "_" + safeName(document.getName())
+                            + StorageKeys.extensionOf(document.getFilePath());
+                    ZipEntry zipEntry = new ZipEntry(entryName);
+                    zip.putNextEntry(zipEntry);
+                    // The local header has been written straight through, so the entry's data starts here
+                    long dataOffset = out.getCount();
+                    try (InputStream in = objectStorage.get(document.getFilePath()).getInputStream()) {
+                        in.transferTo(zip);
+                    }
+                    zip.closeEntry();
+                    entry = new DocumentArchiveEntry(archiveKey, entryName, dataOffset, zipEntry.getCompressedSize(),
+                            zipEntry.getSize(), archivedAt);
+                    entriesByFile.put(document.getFilePath(), entry);
+                }
+                entries.put(document.getId(), entry);
+            }
+
+            zip.putNextEntry(new ZipEntry(INDEX_ENTRY));
+            Writer writer = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+            CSVPrinter index = new CSVPrinter(writer, CSVFormat.DEFAULT.builder()
+                    .setHeader("document_id", "name", "label", "type", "content_hash", "entry", "size").build());
+            for (Document document : documents) {
+                DocumentArchiveEntry entry = entries.get(document.getId());
+                index.printRecord(document.getId(), document.getName(), document.getLabel(), document.getType(),
+                        document.getContentHash(), entry.getEntryName(), entry.getSize());
+            }
+            // Flush rather than close, which would close the zip before its central directory is written
+            index.flush();
+            zip.closeEntry();
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the files (and previews) that newly archived documents had to themselves. Content-addressed blobs
+     * are left to the storage GC, which quarantines them once no live document points at them, as a concurrent
+     * upload of the same content may be about to reuse one.
+     */
+    private void releaseFiles(List<Document> archived) {
+        Set<String> filePaths = new LinkedHashSet<>();
+        for (Document document : archived) {
+            if (document.getContentHash() == null) {
+                filePaths.add(document.getFilePath());
+            }
+        }
+        for (String filePath : filePaths) {
+            try {
+                objectStorage.delete(filePath);
+                thumbnailService.deleteThumbnail(filePath);
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Failed to release archived file {}: {}", filePath, e.getMessage());
+            }
+        }
+    }
+
+    private static String safeName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
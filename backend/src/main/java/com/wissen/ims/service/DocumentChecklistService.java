@@ -0,0 +1,133 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.dto.InternSummary;
+import com.wissen.ims.dto.PageResponse;
+import com.wissen.ims.model.ChecklistDocument;
+import com.wissen.ims.model.Document;
+import com.wissen.ims.model.InternDocumentChecklist;
+import com.wissen.ims.repository.DocumentRepository;
+import com.wissen.ims.repository.InternDocumentChecklistRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps each intern's {@link InternDocumentChecklist} in step with their documents. Every transition touches
+ * one locked checklist row, and only the latest document of a type moves that type's bits. A checklist missing
+ * for an intern is built from their documents on first use, and any still missing at startup are backfilled.
+ */
+@Slf4j
+@Service
+public class DocumentChecklistService {
+
+    @Autowired
+    private InternDocumentChecklistRepository checklistRepository;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Transactional
+    public InternDocumentChecklist recordUploaded(Document document) {
+        return record(document, InternDocumentChecklist::markUploaded);
+    }
+
+    @Transactional
+    public InternDocumentChecklist recordVerified(Document document) {
+        return record(document, InternDocumentChecklist::markVerified);
+    }
+
+    @Transactional
+    public InternDocumentChecklist recordRejected(Document document) {
+        return record(document, InternDocumentChecklist::markRejected);
+    }
+
+    /**
+     * Rebuilds the checklist from the intern's documents. Used after a deletion, where another document of
+     * the same type may still be present.
+     */
+    @Transactional
+    public InternDocumentChecklist rebuild(Long internId) {
+        InternDocumentChecklist checklist = lockChecklist(internId);
+        replay(checklist, internId);
+        return checklist;
+    }
+
+    /**
+     * Interns with every required document uploaded and awaiting verification, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<InternSummary> getVerificationQueue(Pageable pageable) {
+        // The queue has its own fixed order, so any requested sort is dropped
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return PageResponse.of(checklistRepository.findVerificationQueue(unsorted), InternSummary::getId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        List<Long> internIds = checklistRepository.findInternIdsWithoutChecklist();
+        if (internIds.isEmpty()) {
+            return;
+        }
+        for (Long internId : internIds) {
+            transactionTemplate.executeWithoutResult(status -> lockChecklist(internId));
+        }
+        log.info("Built document checklists for {} interns", internIds.size());
+    }
+
+    // A type's bits follow its latest document, so reviewing an older copy of the same type leaves them alone
+    private InternDocumentChecklist record(Document document,
+                                           BiConsumer<InternDocumentChecklist, ChecklistDocument> mark) {
+        Long internId = document.getIntern().getId();
+        InternDocumentChecklist checklist = lockChecklist(internId);
+        ChecklistDocument type = ChecklistDocument.fromDocumentName(document.getName());
+        if (type != null && !documentRepository.existsByInternIdAndNameAndIdGreaterThan(internId,
+                document.getName(), document.getId())) {
+            mark.accept(checklist, type);
+        }
+        return checklist;
+    }
+
+    private InternDocumentChecklist lockChecklist(Long internId) {
+        return checklistRepository.findForUpdate(internId).orElseGet(() -> {
+            boolean created = checklistRepository.insertIfAbsent(internId) == 1;
+            InternDocumentChecklist checklist = checklistRepository.findForUpdate(internId)
+                    .orElseThrow(() -> new IllegalStateException("Checklist vanished for intern " + internId));
+            if (created) {
+                replay(checklist, internId);
+            }
+            return checklist;
+        });
+    }
+
+    private void replay(InternDocumentChecklist checklist, Long internId) {
+        checklist.clear();
+        for (Document document : documentRepository.findByInternIdOrderByIdAsc(internId)) {
+            ChecklistDocument type = ChecklistDocument.fromDocumentName(document.getName());
+            if (type == null) {
+                continue;
+            }
+            switch (document.getStatus()) {
+                case VERIFIED -> checklist.markVerified(type);
+                case REJECTED -> checklist.markRejected(type);
+                default -> {
+                    // A document still being scanned doesn't count as uploaded yet
+                    if (document.passedScan()) {
+                        checklist.markUploaded(type);
+                    }
+                }
+            }
+        }
+    }
+}
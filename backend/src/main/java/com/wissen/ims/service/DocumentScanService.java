@@ -0,0 +1,210 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.dto.ScanStats;
+import com.wissen.ims.event.DocumentUploadedEvent;
+import com.wissen.ims.model.Document;
+import com.wissen.ims.repository.DocumentRepository;
+import com.wissen.ims.scan.ScanResult;
+import com.wissen.ims.scan.VirusScanner;
+import com.wissen.ims.storage.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scans each uploaded document on the bounded {@code scanExecutor}, after the upload request has returned. A new
+ * document is {@code SCANNING} until then: it can't be viewed, downloaded, previewed or verified, and it doesn't
+ * count towards its intern's document checklist until it comes back clean.
+ * <p>
+ * While the file streams to the scanner its SHA-256 is recomputed and compared with the checksum taken at upload,
+ * so a file corrupted or swapped in storage fails too. Infected or corrupt documents are rejected, which sends the
+ * intern back to upload them again. When the scanner can't be reached the document simply stays pending; the
+ * periodic retry picks it up, as it does scans lost to a full queue or a restart.
+ */
+@Slf4j
+@Service
+public class DocumentScanService {
+
+    private static final String SCANNED_BY = "Virus scanner";
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private VirusScanner virusScanner;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("scanExecutor")
+    private ThreadPoolTaskExecutor scanExecutor;
+
+    @Value("${scan.retry-after-minutes:5}")
+    private long retryAfterMinutes;
+
+    // Documents queued or being scanned on this node, so the retry doesn't queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final LocalDateTime since = LocalDateTime.now();
+    private final AtomicLong clean = new AtomicLong();
+    private final AtomicLong infected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong scanNanos = new AtomicLong();
+    private final AtomicLong maxScanNanos = new AtomicLong();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentUploaded(DocumentUploadedEvent event) {
+        submit(event.getDocumentId());
+    }
+
+    /**
+     * Queues a scan unless one is already queued here. When the queue is full the document stays pending for
+     * the periodic retry.
+     */
+    public void submit(Long documentId) {
+        if (!inFlight.add(documentId)) {
+            return;
+        }
+        try {
+            scanExecutor.execute(() -> {
+                try {
+                    scan(documentId);
+                } finally {
+                    inFlight.remove(documentId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            inFlight.remove(documentId);
+            log.warn("Scan queue is full, document {} will be scanned on the next retry", documentId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${scan.retry-interval-ms:60000}", initialDelayString = "${scan.retry-interval-ms:60000}")
+    public void retryPending() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(retryAfterMinutes);
+        for (Long documentId : documentRepository.findIdsByScanStatusUploadedBefore(Document.ScanStatus.SCANNING, before)) {
+            submit(documentId);
+        }
+    }
+
+    public ScanStats getStats() {
+        ScanStats stats = new ScanStats();
+        stats.setSince(since);
+        stats.setClean(clean.get());
+        stats.setInfected(infected.get());
+        stats.setFailed(failed.get());
+        stats.setReused(reused.get());
+        stats.setErrors(errors.get());
+        long scanned = clean.get() + infected.get() + failed.get();
+        stats.setCompleted(scanned + reused.get());
+        stats.setAverageScanMillis(scanned == 0 ? 0 : scanNanos.get() / scanned / 1_000_000);
+        stats.setMaxScanMillis(maxScanNanos.get() / 1_000_000);
+        stats.setActiveScans(scanExecutor.getActiveCount());
+        stats.setQueuedScans(scanExecutor.getThreadPoolExecutor().getQueue().size());
+        stats.setPendingDocuments(documentRepository.countByScanStatus(Document.ScanStatus.SCANNING));
+        return stats;
+    }
+
+    private void scan(Long documentId) {
+        Document document = documentRepository.findById(documentId).orElse(null);
+        if (document == null || document.getScanStatus() != Document.ScanStatus.SCANNING) {
+            return;
+        }
+
+        // Content-addressed storage makes an identical file that already passed easy to spot
+        if (document.getContentHash() != null
+                && documentRepository.existsByContentHashAndScanStatus(document.getContentHash(), Document.ScanStatus.CLEAN)) {
+            if (record(documentId, Document.ScanStatus.CLEAN, "Identical to a file that passed")) {
+                reused.incrementAndGet();
+                documentService.recordScanPassed(documentId);
+                thumbnailService.schedule(document.getFilePath());
+            }
+            return;
+        }
+
+        long started = System.nanoTime();
+        ScanResult result;
+        String checksum;
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = new DigestInputStream(objectStorage.get(document.getFilePath()).getInputStream(), digest)) {
+                result = virusScanner.scan(in);
+                // The checksum covers the whole file even if a scanner stops reading early
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            checksum = HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | RuntimeException e) {
+            errors.incrementAndGet();
+            log.warn("Scan of document {} failed, will retry: {}", documentId, e.getMessage());
+            return;
+        }
+        long elapsed = System.nanoTime() - started;
+        scanNanos.addAndGet(elapsed);
+        maxScanNanos.accumulateAndGet(elapsed, Math::max);
+
+        if (document.getContentHash() != null && !document.getContentHash().equals(checksum)) {
+            if (record(documentId, Document.ScanStatus.FAILED, "Checksum mismatch")) {
+                failed.incrementAndGet();
+                log.error("Document {} does not match its upload checksum", documentId);
+                documentService.rejectDocument(documentId, "File failed its integrity check, please upload it again",
+                        SCANNED_BY);
+            }
+        } else if (!result.isClean()) {
+            if (record(documentId, Document.ScanStatus.INFECTED, result.getSignature())) {
+                infected.incrementAndGet();
+                log.warn("Document {} is infected: {}", documentId, result.getSignature());
+                documentService.rejectDocument(documentId, "Failed virus scan: " + result.getSignature(), SCANNED_BY);
+            }
+        } else if (record(documentId, Document.ScanStatus.CLEAN, null)) {
+            clean.incrementAndGet();
+            documentService.recordScanPassed(documentId);
+            thumbnailService.schedule(document.getFilePath());
+        }
+        log.debug("Scanned document {} in {} ms", documentId, elapsed / 1_000_000);
+    }
+
+    private boolean record(Long documentId, Document.ScanStatus status, String detail) {
+        Integer updated = transactionTemplate.execute(tx -> documentRepository.updateScanStatus(documentId,
+                Document.ScanStatus.SCANNING, status, detail, LocalDateTime.now()));
+        return updated != null && updated > 0;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
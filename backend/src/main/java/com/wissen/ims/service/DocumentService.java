@@ -1,44 +1,97 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.dto.DocumentBatchResult;
+import com.wissen.ims.dto.DocumentSummary;
+import com.wissen.ims.dto.PageResponse;
+import com.wissen.ims.event.DocumentUploadedEvent;
+import com.wissen.ims.event.StatusChangedEvent;
 import com.wissen.ims.model.Document;
 import com.wissen.ims.model.Intern;
+import com.wissen.ims.model.InternDocumentChecklist;
 import com.wissen.ims.repository.DocumentRepository;
 import com.wissen.ims.repository.InternRepository;
+import com.wissen.ims.storage.DocumentStore;
+import com.wissen.ims.storage.InspectedUpload;
+import com.wissen.ims.storage.ObjectStorage;
+import com.wissen.ims.storage.StoredBlob;
+import com.wissen.ims.storage.UploadInspector;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
 
+@Slf4j
 @Service
 public class DocumentService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private DocumentRepository documentRepository;
 
     @Autowired
     private InternRepository internRepository;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private UploadInspector uploadInspector;
+
+    @Autowired
+    private ThumbnailService thumbnailService;
+
+    @Autowired
+    private DocumentChecklistService checklistService;
+
+    @Autowired
+    private DocumentArchiveService archiveService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     public List<Document> getAllDocuments() {
         return documentRepository.findAll();
     }
 
+    public PageResponse<DocumentSummary> getDocumentsPage(Pageable pageable) {
+        return PageResponse.of(documentRepository.findSummaries(pageable), DocumentSummary::getId);
+    }
+
+    public PageResponse<DocumentSummary> getDocumentsAfter(Long cursor, int size) {
+        return PageResponse.of(documentRepository.findSummariesByIdLessThan(cursor,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))), DocumentSummary::getId);
+    }
+
     public Document getDocumentById(Long id) {
         return documentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Document not found with id: " + id));
     }
 
+    public Resource getDocumentFile(Document document) {
+        return archiveService.open(document);
+    }
+
     public List<Document> getDocumentsByInternId(Long internId) {
         return documentRepository.findByInternId(internId);
     }
@@ -52,23 +105,15 @@ public class DocumentService {
         Intern intern = internRepository.findById(internId)
                 .orElseThrow(() -> new RuntimeException("Intern not found with id: " + internId));
 
-        // Create upload directory if it doesn't exist
-        File uploadDirectory = new File(uploadDir);
-        if (!uploadDirectory.exists()) {
-            uploadDirectory.mkdirs();
+        // Check the real file type, then stream the upload into the content-addressed store;
+        // a repeat of an earlier upload costs no disk
+        StoredBlob blob;
+        try (InspectedUpload upload = uploadInspector.inspect(file, UploadInspector.DOCUMENT_TYPES)) {
+            blob = documentStore.store(upload.getContent(), upload.getExtension());
         }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null ? originalFilename.substring(originalFilename.lastIndexOf(".")) : "";
-        String filename = UUID.randomUUID().toString() + extension;
-        
-        // Save file
-        Path filePath = Paths.get(uploadDir, filename);
-        Files.write(filePath, file.getBytes());
-
         // Format file size
-        String formattedSize = formatFileSize(file.getSize());
+        String formattedSize = formatFileSize(blob.getSize());
 
         // Create document record
         Document document = new Document();
@@ -79,18 +124,28 @@ public class DocumentService {
         document.setDescription(description != null ? description : "Document uploaded by intern");
         document.setRequired(true);
         document.setType(type);
-        document.setFilePath(filePath.toString());
+        document.setFilePath(blob.getLocation());
+        document.setContentHash(blob.getContentHash());
         document.setSize(formattedSize);
         document.setStatus(Document.DocumentStatus.PENDING);
+        document.setScanStatus(Document.ScanStatus.SCANNING);
 
+        // The document only counts towards the checklist once its scan passes (see recordScanPassed)
         Document savedDocument = documentRepository.save(document);
-        
-        // Update intern status to DOCUMENT_VERIFICATION if all required docs are uploaded
-        updateInternDocumentStatus(internId);
-        
+        eventPublisher.publishEvent(new DocumentUploadedEvent(savedDocument.getId(), savedDocument.getFilePath()));
         return savedDocument;
     }
 
+    /**
+     * Counts a document that has just passed its virus scan as uploaded, moving its intern to
+     * DOCUMENT_VERIFICATION if it was the last required document.
+     */
+    @Transactional
+    public void recordScanPassed(Long id) {
+        Document document = getDocumentById(id);
+        updateInternDocumentStatus(document.getIntern().getId(), checklistService.recordUploaded(document));
+    }
+
     // Helper method to format file size
     private String formatFileSize(long size) {
         if (size < 1024) {
@@ -102,19 +157,24 @@ public class DocumentService {
         }
     }
 
+    @Transactional
     public Document verifyDocument(Long id, String verifiedBy) {
         Document document = getDocumentById(id);
+        if (!document.passedScan()) {
+            throw new RuntimeException("Document has not passed its virus scan");
+        }
         document.setStatus(Document.DocumentStatus.VERIFIED);
         document.setVerifiedBy(verifiedBy);
         document.setVerifiedAt(LocalDateTime.now());
         Document savedDocument = documentRepository.save(document);
         
         // Update intern status if all documents are verified
-        updateInternDocumentStatus(document.getIntern().getId());
+        updateInternDocumentStatus(document.getIntern().getId(), checklistService.recordVerified(savedDocument));
         
         return savedDocument;
     }
 
+    @Transactional
     public Document rejectDocument(Long id, String reason, String verifiedBy) {
         Document document = getDocumentById(id);
         document.setStatus(Document.DocumentStatus.REJECTED);
@@ -122,30 +182,36 @@ public class DocumentService {
         document.setVerifiedBy(verifiedBy);
         document.setVerifiedAt(LocalDateTime.now());
         Document savedDocument = documentRepository.save(document);
-        
-        // Update intern status back to DOCUMENT_PENDING if any doc is rejected
-        Intern intern = document.getIntern();
-        if (intern.getStatus() == Intern.InternStatus.DOCUMENT_VERIFICATION || 
-            intern.getStatus() == Intern.InternStatus.DOCUMENT_VERIFIED) {
-            intern.setStatus(Intern.InternStatus.DOCUMENT_PENDING);
-            internRepository.save(intern);
-        }
+
+        // Update intern status back to DOCUMENT_PENDING if the rejected document is the latest of its type
+        updateInternDocumentStatus(document.getIntern().getId(), checklistService.recordRejected(savedDocument));
         
         return savedDocument;
     }
 
     public void deleteDocument(Long id) {
-        Document document = getDocumentById(id);
-        
-        // Delete physical file
+        // Files are only released once the row is gone for good
+        Document document = transactionTemplate.execute(status -> {
+            Document deleted = getDocumentById(id);
+            documentRepository.delete(deleted);
+            // Another document of the same type may remain, so rebuild rather than clear the type's bits
+            checklistService.rebuild(deleted.getIntern().getId());
+            return deleted;
+        });
+
+        // Delete the document's own files. A content-addressed blob is left to the storage GC, which quarantines it
+        // once no document points at it: deleting it here could race an upload of the same content reusing it.
         try {
-            Path filePath = Paths.get(document.getFilePath());
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            System.err.println("Failed to delete file: " + e.getMessage());
+            if (document.isArchived()) {
+                // Its own file went when it was archived
+                archiveService.releaseArchive(document);
+            } else if (document.getContentHash() == null) {
+                objectStorage.delete(document.getFilePath());
+                thumbnailService.deleteThumbnail(document.getFilePath());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to delete the file of document {}: {}", id, e.getMessage());
         }
-
-        documentRepository.delete(document);
     }
 
     public long countByInternAndStatus(Long internId, Document.DocumentStatus status) {
@@ -155,50 +221,86 @@ public class DocumentService {
     }
 
     /**
-     * Update intern status based on document upload/verification status
-     * - DOCUMENT_PENDING: No documents or some rejected
-     * - DOCUMENT_VERIFICATION: All required docs uploaded, waiting for admin verification
-     * - DOCUMENT_VERIFIED: All required docs verified by admin
+     * Verifies many documents in one transaction: a single UPDATE marks them all, each document then flips its
+     * bits in its intern's checklist, and each affected intern's status is set once at the end. Documents that
+     * haven't passed their virus scan are skipped.
      */
-    private void updateInternDocumentStatus(Long internId) {
+    @Transactional
+    public DocumentBatchResult verifyDocuments(Collection<Long> ids, String verifiedBy) {
+        Set<Long> documentIds = distinctIds(ids);
+        // Files still being scanned, or that failed, are left as they are
+        List<Document> documents = documentRepository.findAllById(documentIds).stream()
+                .filter(Document::passedScan)
+                .toList();
+        List<Long> verifiableIds = documents.stream().map(Document::getId).toList();
+        int updated = verifiableIds.isEmpty() ? 0 : documentRepository.updateReview(verifiableIds,
+                Document.DocumentStatus.VERIFIED, null, verifiedBy, LocalDateTime.now());
+
+        Map<Long, InternDocumentChecklist> checklists = new LinkedHashMap<>();
+        for (Document document : documents) {
+            checklists.put(document.getIntern().getId(), checklistService.recordVerified(document));
+        }
+
+        int internsUpdated = 0;
+        for (Map.Entry<Long, InternDocumentChecklist> entry : checklists.entrySet()) {
+            if (updateInternDocumentStatus(entry.getKey(), entry.getValue())) {
+                internsUpdated++;
+            }
+        }
+        return new DocumentBatchResult(documentIds.size(), updated, internsUpdated);
+    }
+
+    /**
+     * Rejects many documents in one transaction. As with a single rejection, each affected intern's status is then
+     * set once from their checklist.
+     */
+    @Transactional
+    public DocumentBatchResult rejectDocuments(Collection<Long> ids, String reason, String verifiedBy) {
+        Set<Long> documentIds = distinctIds(ids);
+        List<Document> documents = documentRepository.findAllById(documentIds);
+        int updated = documentRepository.updateReview(documentIds, Document.DocumentStatus.REJECTED, reason,
+                verifiedBy, LocalDateTime.now());
+
+        Map<Long, InternDocumentChecklist> checklists = new LinkedHashMap<>();
+        for (Document document : documents) {
+            checklists.put(document.getIntern().getId(), checklistService.recordRejected(document));
+        }
+
+        int internsUpdated = 0;
+        for (Map.Entry<Long, InternDocumentChecklist> entry : checklists.entrySet()) {
+            if (updateInternDocumentStatus(entry.getKey(), entry.getValue())) {
+                internsUpdated++;
+            }
+        }
+        return new DocumentBatchResult(documentIds.size(), updated, internsUpdated);
+    }
+
+    private Set<Long> distinctIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("No document ids given");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        return distinct;
+    }
+
+    /**
+     * Update intern status from their document checklist (see {@link InternDocumentChecklist#documentStatus()}).
+     *
+     * @return whether the intern's status changed
+     */
+    private boolean updateInternDocumentStatus(Long internId, InternDocumentChecklist checklist) {
         Intern intern = internRepository.findById(internId)
                 .orElseThrow(() -> new RuntimeException("Intern not found"));
-        
-        List<Document> documents = documentRepository.findByInternId(internId);
-        
-        // Required document types
-        List<String> requiredDocs = List.of("AADHAAR", "PAN", "CLASS_10", "CLASS_12", "DEGREE", "PHOTO", "BANK_PASSBOOK");
-        
-        // Check if all required documents are uploaded
-        long uploadedCount = documents.stream()
-                .filter(doc -> requiredDocs.contains(doc.getName()))
-                .count();
-        
-        // Check if any document is rejected
-        boolean hasRejected = documents.stream()
-                .anyMatch(doc -> doc.getStatus() == Document.DocumentStatus.REJECTED);
-        
-        // Check if all required documents are verified
-        long verifiedCount = documents.stream()
-                .filter(doc -> requiredDocs.contains(doc.getName()))
-                .filter(doc -> doc.getStatus() == Document.DocumentStatus.VERIFIED)
-                .count();
-        
-        // Update intern status based on document state
-        if (hasRejected) {
-            // If any document is rejected, go back to DOCUMENT_PENDING
-            intern.setStatus(Intern.InternStatus.DOCUMENT_PENDING);
-        } else if (verifiedCount == requiredDocs.size()) {
-            // All required documents verified
-            intern.setStatus(Intern.InternStatus.DOCUMENT_VERIFIED);
-        } else if (uploadedCount == requiredDocs.size()) {
-            // All required documents uploaded, waiting for verification
-            intern.setStatus(Intern.InternStatus.DOCUMENT_VERIFICATION);
-        } else {
-            // Still uploading documents
-            intern.setStatus(Intern.InternStatus.DOCUMENT_PENDING);
+
+        Intern.InternStatus previousStatus = intern.getStatus();
+        Intern.InternStatus status = checklist.documentStatus();
+        if (status == previousStatus) {
+            return false;
         }
-        
+        intern.setStatus(status);
         internRepository.save(intern);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Intern.class, previousStatus, status));
+        return true;
     }
 }
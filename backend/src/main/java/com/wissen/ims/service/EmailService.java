@@ -1,24 +1,32 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.mail.SmtpTransportPool;
 import com.wissen.ims.model.Intern;
 import com.wissen.ims.model.Offer;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
+@Slf4j
 @Service
 public class EmailService {
 
-    @Autowired(required = false)
-    private JavaMailSender mailSender;
+    @Autowired
+    private MailOutboxService mailOutboxService;
+
+    @Autowired
+    private SmtpTransportPool transportPool;
 
     @Value("${spring.mail.username:noreply@wissen.com}")
     private String fromEmail;
@@ -26,119 +34,69 @@ public class EmailService {
     @Value("${app.name:Wissen IMS}")
     private String appName;
 
+    /**
+     * Queues the college's login email; the mail outbox sends it shortly after, or once a mail server is
+     * configured.
+     */
     public void sendCollegeCredentials(String toEmail, String collegeName, String email, String password) {
-        if (mailSender == null) {
-            // Log credentials if email is not configured
-            System.out.println("==============================================");
-            System.out.println("EMAIL SERVICE NOT CONFIGURED");
-            System.out.println("College: " + collegeName);
-            System.out.println("Login Credentials:");
-            System.out.println("Email: " + email);
-            System.out.println("Password: " + password);
-            System.out.println("Login URL: http://localhost:3000");
-            System.out.println("==============================================");
-            return;
-        }
-
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to " + appName + " - College Login Credentials");
-            message.setText(buildCollegeEmailBody(collegeName, email, password));
-
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Fallback to console logging if email fails
-            System.err.println("Failed to send email to: " + toEmail);
-            System.err.println("Error: " + e.getMessage());
-            System.out.println("==============================================");
-            System.out.println("College: " + collegeName);
-            System.out.println("Login Credentials:");
-            System.out.println("Email: " + email);
-            System.out.println("Password: " + password);
-            System.out.println("==============================================");
-        }
+        mailOutboxService.enqueue(toEmail, "Welcome to " + appName + " - College Login Credentials",
+                buildCollegeEmailBody(collegeName, email, password), false);
     }
 
+    /**
+     * Queues the intern's login email; the mail outbox sends it shortly after, or once a mail server is
+     * configured.
+     */
     public void sendInternCredentials(String toEmail, String internName, String email, String password) {
-        if (mailSender == null) {
-            // Log credentials if email is not configured
-            System.out.println("==============================================");
-            System.out.println("EMAIL SERVICE NOT CONFIGURED");
-            System.out.println("Intern: " + internName);
-            System.out.println("Login Credentials:");
-            System.out.println("Email: " + email);
-            System.out.println("Password: " + password);
-            System.out.println("Login URL: http://localhost:3000");
-            System.out.println("==============================================");
-            return;
+        mailOutboxService.enqueue(toEmail, "Welcome to " + appName + " - Intern Login Credentials",
+                buildInternEmailBody(internName, email, password), false);
+    }
+
+    /**
+     * Sends several offer letters over one pooled SMTP connection.
+     *
+     * @param pdfs each offer's letter, by offer id
+     * @return the offers that could not be sent, by id, with the reason; empty when all went out
+     */
+    public Map<Long, Exception> sendOfferLetters(List<Offer> offers, Map<Long, byte[]> pdfs) {
+        Map<Long, Exception> failures = new HashMap<>();
+        if (!transportPool.isConfigured()) {
+            log.warn("Mail is not configured; {} offer letters were not emailed", offers.size());
+            for (Offer offer : offers) {
+                failures.put(offer.getId(), new IllegalStateException("Mail is not configured"));
+            }
+            return failures;
         }
 
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(toEmail);
-            message.setSubject("Welcome to " + appName + " - Intern Login Credentials");
-            message.setText(buildInternEmailBody(internName, email, password));
-
-            mailSender.send(message);
-        } catch (Exception e) {
-            // Fallback to console logging if email fails
-            System.err.println("Failed to send email to: " + toEmail);
-            System.err.println("Error: " + e.getMessage());
-            System.out.println("==============================================");
-            System.out.println("Intern: " + internName);
-            System.out.println("Login Credentials:");
-            System.out.println("Email: " + email);
-            System.out.println("Password: " + password);
-            System.out.println("==============================================");
+        Map<MimeMessage, Long> offerIds = new LinkedHashMap<>();
+        for (Offer offer : offers) {
+            try {
+                offerIds.put(createOfferLetterMessage(offer.getIntern(), offer, pdfs.get(offer.getId())), offer.getId());
+            } catch (MessagingException e) {
+                failures.put(offer.getId(), e);
+            }
         }
+        transportPool.send(List.copyOf(offerIds.keySet()))
+                .forEach((message, cause) -> failures.put(offerIds.get(message), cause));
+        return failures;
     }
 
-    public void sendOfferLetter(Intern intern, Offer offer, byte[] pdfBytes) {
-        if (mailSender == null) {
-            // Log offer details if email is not configured
-            System.out.println("==============================================");
-            System.out.println("EMAIL SERVICE NOT CONFIGURED");
-            System.out.println("Offer Letter for: " + intern.getName());
-            System.out.println("Email: " + intern.getEmail());
-            System.out.println("Position: " + offer.getPosition());
-            System.out.println("Stipend: Rs. " + offer.getStipend() + " per month");
-            System.out.println("Start Date: " + offer.getStartDate());
-            System.out.println("Duration: " + offer.getDuration() + " months");
-            System.out.println("Location: " + offer.getLocation());
-            System.out.println("Login URL: http://localhost:3000");
-            System.out.println("==============================================");
-            return;
-        }
+    private MimeMessage createOfferLetterMessage(Intern intern, Offer offer, byte[] pdfBytes) throws MessagingException {
+        MimeMessage message = transportPool.createMimeMessage();
+        // Enable multipart support for attachment
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            // Enable multipart support for attachment
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(intern.getEmail());
-            helper.setSubject("Congratulations! Internship Offer Letter from " + appName);
-            helper.setText(buildOfferEmailBody(intern, offer), true);
-
-            // Attach PDF
-            if (pdfBytes != null && pdfBytes.length > 0) {
-                String filename = "Internship_Offer_" + intern.getName().replace(" ", "_") + ".pdf";
-                helper.addAttachment(filename, new ByteArrayResource(pdfBytes));
-                System.out.println("📎 Attached PDF to offer email: " + filename);
-            }
+        helper.setFrom(fromEmail);
+        helper.setTo(intern.getEmail());
+        helper.setSubject("Congratulations! Internship Offer Letter from " + appName);
+        helper.setText(buildOfferEmailBody(intern, offer), true);
 
-            mailSender.send(message);
-            System.out.println("✅ Offer letter email sent successfully with attachment to: " + intern.getEmail());
-        } catch (MessagingException e) {
-            // Log the actual error
-            System.err.println("❌ Failed to send offer email to: " + intern.getEmail());
-            System.err.println("Error: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to send email: " + e.getMessage(), e);
+        // Attach PDF
+        if (pdfBytes != null && pdfBytes.length > 0) {
+            String filename = "Internship_Offer_" + intern.getName().replace(" ", "_") + ".pdf";
+            helper.addAttachment(filename, new ByteArrayResource(pdfBytes));
         }
+        return message;
     }
 
     private String buildOfferEmailBody(Intern intern, Offer offer) {
@@ -0,0 +1,100 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.model.Candidate;
+import com.wissen.ims.model.Intern;
+import com.wissen.ims.repository.CandidateRepository;
+import com.wissen.ims.repository.InternRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes candidate and intern exports as CSV directly from a database cursor. Each row is written and then
+ * detached from the persistence context, so memory use stays flat however many rows match.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ExportService {
+
+    private static final String[] CANDIDATE_HEADERS = {
+            "id", "name", "email", "phone", "branch", "cgpa", "graduationYear", "collegeId", "collegeName",
+            "status", "hiringRound", "hiringStatus", "hiringScore", "emergencyContact", "address", "createdAt"
+    };
+
+    private static final String[] INTERN_HEADERS = {
+            "id", "name", "email", "phone", "branch", "cgpa", "collegeName", "joinDate", "status",
+            "hiringRound", "hiringStatus", "hiringScore", "emergencyContact", "address", "createdAt"
+    };
+
+    // Flush to the client every this many rows so the download makes visible progress
+    private static final int FLUSH_INTERVAL = 500;
+
+    @Autowired
+    private CandidateRepository candidateRepository;
+
+    @Autowired
+    private InternRepository internRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void exportCandidates(Candidate.CandidateStatus status, Long collegeId, String term,
+                                 OutputStream out) throws IOException {
+        try (Stream<Candidate> candidates = candidateRepository.streamForExport(status, collegeId, blankToNull(term));
+             CSVPrinter printer = openPrinter(out, CANDIDATE_HEADERS)) {
+            int rows = 0;
+            for (Iterator<Candidate> it = candidates.iterator(); it.hasNext(); ) {
+                Candidate c = it.next();
+                printer.printRecord(c.getId(), c.getName(), c.getEmail(), c.getPhone(), c.getBranch(), c.getCgpa(),
+                        c.getGraduationYear(), c.getCollegeId(), c.getCollegeName(), c.getStatus(),
+                        c.getHiringRound(), c.getHiringStatus(), c.getHiringScore(), c.getEmergencyContact(),
+                        c.getAddress(), c.getCreatedAt());
+                entityManager.detach(c);
+                if (++rows % FLUSH_INTERVAL == 0) {
+                    printer.flush();
+                }
+            }
+        }
+    }
+
+    public void exportInterns(Intern.InternStatus status, Long collegeId, String term,
+                              OutputStream out) throws IOException {
+        try (Stream<Intern> interns = internRepository.streamForExport(status, collegeId, blankToNull(term));
+             CSVPrinter printer = openPrinter(out, INTERN_HEADERS)) {
+            int rows = 0;
+            for (Iterator<Intern> it = interns.iterator(); it.hasNext(); ) {
+                Intern i = it.next();
+                printer.printRecord(i.getId(), i.getName(), i.getEmail(), i.getPhone(), i.getBranch(), i.getCgpa(),
+                        i.getCollegeName(), i.getJoinDate(), i.getStatus(), i.getHiringRound(), i.getHiringStatus(),
+                        i.getHiringScore(), i.getEmergencyContact(), i.getAddress(), i.getCreatedAt());
+                entityManager.detach(i);
+                if (++rows % FLUSH_INTERVAL == 0) {
+                    printer.flush();
+                }
+            }
+        }
+    }
+
+    private CSVPrinter openPrinter(OutputStream out, String[] headers) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // Byte order mark so Excel opens the file as UTF-8 rather than the system code page
+        writer.write('\uFEFF');
+        return new CSVPrinter(writer, CSVFormat.DEFAULT.builder().setHeader(headers).build());
+    }
+
+    private String blankToNull(String term) {
+        return term == null || term.isBlank() ? null : term.trim();
+    }
+}
@@ -1,10 +1,14 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.dto.PageResponse;
 import com.wissen.ims.model.HiringRound;
 import com.wissen.ims.model.Intern;
 import com.wissen.ims.repository.HiringRoundRepository;
 import com.wissen.ims.repository.InternRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -23,6 +27,15 @@ public class HiringRoundService {
         return hiringRoundRepository.findAll();
     }
 
+    public PageResponse<HiringRound> getHiringRoundsPage(Pageable pageable) {
+        return PageResponse.of(hiringRoundRepository.findAll(pageable), HiringRound::getId);
+    }
+
+    public PageResponse<HiringRound> getHiringRoundsAfter(Long cursor, int size) {
+        return PageResponse.of(hiringRoundRepository.findByIdLessThan(cursor,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))), HiringRound::getId);
+    }
+
     public HiringRound getHiringRoundById(Long id) {
         return hiringRoundRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Hiring round not found with id: " + id));
@@ -105,6 +118,6 @@ public class HiringRoundService {
     }
 
     public long countByStatus(HiringRound.RoundStatus status) {
-        return hiringRoundRepository.findByStatus(status).size();
+        return hiringRoundRepository.countByStatus(status);
     }
 }
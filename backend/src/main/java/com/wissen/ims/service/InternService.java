@@ -1,10 +1,17 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.dto.InternSummary;
+import com.wissen.ims.dto.PageResponse;
+import com.wissen.ims.event.StatusChangedEvent;
 import com.wissen.ims.model.Intern;
 import com.wissen.ims.model.User;
 import com.wissen.ims.repository.InternRepository;
 import com.wissen.ims.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +23,9 @@ import java.util.List;
 @Transactional
 public class InternService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private InternRepository internRepository;
 
@@ -39,6 +49,15 @@ public class InternService {
         return internRepository.findAll();
     }
 
+    public PageResponse<InternSummary> getInternsPage(Pageable pageable) {
+        return PageResponse.of(internRepository.findSummaries(pageable), InternSummary::getId);
+    }
+
+    public PageResponse<InternSummary> getInternsAfter(Long cursor, int size) {
+        return PageResponse.of(internRepository.findSummariesByIdLessThan(cursor,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))), InternSummary::getId);
+    }
+
     public Intern getInternById(Long id) {
         return internRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Intern not found with id: " + id));
@@ -65,6 +84,7 @@ public class InternService {
         
         // Save intern first
         Intern savedIntern = internRepository.save(intern);
+        eventPublisher.publishEvent(StatusChangedEvent.created(Intern.class, savedIntern.getStatus()));
         
         // Generate random password for intern user
         String generatedPassword = generateSecurePassword(12);
@@ -122,6 +142,7 @@ public class InternService {
 
     public Intern updateIntern(Long id, Intern internDetails) {
         Intern intern = getInternById(id);
+        Intern.InternStatus previousStatus = intern.getStatus();
         
         intern.setName(internDetails.getName());
         intern.setEmail(internDetails.getEmail());
@@ -135,13 +156,18 @@ public class InternService {
         intern.setAddress(internDetails.getAddress());
         intern.setStatus(internDetails.getStatus());
 
-        return internRepository.save(intern);
+        Intern savedIntern = internRepository.save(intern);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Intern.class, previousStatus, savedIntern.getStatus()));
+        return savedIntern;
     }
 
     public Intern updateInternStatus(Long id, Intern.InternStatus status) {
         Intern intern = getInternById(id);
+        Intern.InternStatus previousStatus = intern.getStatus();
         intern.setStatus(status);
-        return internRepository.save(intern);
+        Intern savedIntern = internRepository.save(intern);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Intern.class, previousStatus, status));
+        return savedIntern;
     }
 
     public Intern updateInternHiringStatus(Long id, String hiringRound, Intern.HiringStatus hiringStatus, Integer hiringScore) {
@@ -157,9 +183,10 @@ public class InternService {
     public void deleteIntern(Long id) {
         Intern intern = getInternById(id);
         internRepository.delete(intern);
+        eventPublisher.publishEvent(StatusChangedEvent.deleted(Intern.class, intern.getStatus()));
     }
 
     public long countByStatus(Intern.InternStatus status) {
-        return internRepository.findByStatus(status).size();
+        return internRepository.countByStatus(status);
     }
 }
@@ -0,0 +1,170 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.mail.MailBodyCipher;
+import com.wissen.ims.mail.SmtpTransportPool;
+import com.wissen.ims.model.MailOutboxMessage;
+import com.wissen.ims.model.OutboxStatus;
+import com.wissen.ims.repository.MailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers emails from the {@code mail_outbox} table. {@link #enqueue} only inserts a row, in the caller's
+ * transaction, so registering a cohort returns without waiting on SMTP and no email is lost if the server is down.
+ * <p>
+ * An {@link OutboxWorker} claims due rows for the {@code mailOutboxExecutor}, in chunks of
+ * {@code mail.outbox.send-batch-size}, and each chunk is sent over one connection from {@link SmtpTransportPool}.
+ * Failures are retried with backoff up to {@code mail.outbox.max-attempts}, and claims abandoned mid-send are
+ * released after {@code mail.outbox.claim-timeout-minutes}.
+ * <p>
+ * Bodies are encrypted at rest (see {@link MailBodyCipher}) and cleared once a message is done with; one that can't be
+ * decrypted fails on its own without holding up the rest of its chunk. While a mail server is configured, a message
+ * still pending after {@code mail.outbox.pending-ttl-hours} is failed and its body dropped; without one, messages
+ * wait until one is. Finished rows are deleted after {@code mail.outbox.retention-days}.
+ */
+@Slf4j
+@Service
+public class MailOutboxService {
+
+    @Autowired
+    private MailOutboxRepository outboxRepository;
+
+    @Autowired
+    private SmtpTransportPool transportPool;
+
+    @Autowired
+    private MailBodyCipher bodyCipher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("mailOutboxExecutor")
+    private ThreadPoolTaskExecutor outboxExecutor;
+
+    @Value("${spring.mail.username:noreply@wissen.com}")
+    private String fromEmail;
+
+    @Value("${mail.outbox.send-batch-size:50}")
+    private int sendBatchSize;
+
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-initial-seconds:30}")
+    private long backoffInitialSeconds;
+
+    @Value("${mail.outbox.backoff-max-minutes:30}")
+    private long backoffMaxMinutes;
+
+    @Value("${mail.outbox.claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+
+    @Value("${mail.outbox.pending-ttl-hours:72}")
+    private long pendingTtlHours;
+
+    @Value("${mail.outbox.retention-days:30}")
+    private long retentionDays;
+
+    private OutboxWorker<MailOutboxMessage> worker;
+
+    @PostConstruct
+    void init() {
+        worker = new OutboxWorker<>("outbox email", outboxRepository, transactionTemplate, outboxExecutor,
+                new OutboxWorker.Settings(sendBatchSize, maxAttempts, backoffInitialSeconds, backoffMaxMinutes,
+                        claimTimeoutMinutes),
+                this::send);
+    }
+
+    /**
+     * Queues an email for delivery.
+     */
+    public MailOutboxMessage enqueue(String recipient, String subject, String body, boolean html) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(bodyCipher.encrypt(body));
+        message.setHtml(html);
+        message.setNextAttemptAt(LocalDateTime.now());
+        return outboxRepository.save(message);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void poll() {
+        if (!transportPool.isConfigured()) {
+            return;
+        }
+        worker.poll();
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.reclaim-interval-ms:60000}")
+    public void releaseAbandonedClaims() {
+        worker.releaseAbandonedClaims();
+    }
+
+    @Scheduled(cron = "${mail.outbox.purge-cron:0 15 * * * *}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer expired = 0;
+        // Without a mail server nothing had a chance to go out, so pending messages wait for one
+        if (transportPool.isConfigured()) {
+            expired = transactionTemplate.execute(status -> outboxRepository.expire(
+                    OutboxStatus.PENDING, OutboxStatus.FAILED,
+                    "Not sent within " + pendingTtlHours + " hours", now.minusHours(pendingTtlHours)));
+        }
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteByStatusInCreatedBefore(
+                List.of(OutboxStatus.SENT, OutboxStatus.FAILED), now.minusDays(retentionDays)));
+        if ((expired != null && expired > 0) || (deleted != null && deleted > 0)) {
+            log.info("Mail outbox purge: {} expired, {} deleted", expired, deleted);
+        }
+    }
+
+    private Map<Long, Exception> send(List<MailOutboxMessage> messages) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> outboxIds = new LinkedHashMap<>();
+        for (MailOutboxMessage message : messages) {
+            try {
+                outboxIds.put(toMimeMessage(message), message.getId());
+            } catch (MessagingException e) {
+                failures.put(message.getId(), e);
+            } catch (GeneralSecurityException e) {
+                // Retrying won't help: the key has changed or the row was tampered with
+                message.markFailed("Body could not be decrypted");
+                log.error("Giving up on outbox email {}: its body could not be decrypted", message.getId());
+            }
+        }
+        if (!outboxIds.isEmpty()) {
+            transportPool.send(List.copyOf(outboxIds.keySet()))
+                    .forEach((mimeMessage, cause) -> failures.put(outboxIds.get(mimeMessage), cause));
+        }
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException, GeneralSecurityException {
+        String body = bodyCipher.decrypt(message.getBody());
+        MimeMessage mimeMessage = transportPool.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+        helper.setFrom(fromEmail);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(body != null ? body : "", message.isHtml());
+        return mimeMessage;
+    }
+}
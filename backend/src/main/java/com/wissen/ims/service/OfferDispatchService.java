@@ -0,0 +1,242 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.dto.OfferBatchProgress;
+import com.wissen.ims.mail.SmtpTransportPool;
+import com.wissen.ims.model.Offer;
+import com.wissen.ims.model.OfferBatch;
+import com.wissen.ims.model.OfferDispatch;
+import com.wissen.ims.model.OutboxStatus;
+import com.wissen.ims.repository.OfferBatchRepository;
+import com.wissen.ims.repository.OfferDispatchRepository;
+import com.wissen.ims.repository.OfferRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers offer letters from the {@code offer_dispatches} outbox. {@link #enqueue} only inserts a row, in the
+ * caller's transaction, so the offer and its pending delivery commit together and the request returns at once.
+ * A partial unique index allows one PENDING or SENDING row per offer, so concurrent sends of the same offer queue
+ * it once.
+ * <p>
+ * An {@link OutboxWorker} claims due rows for the {@code offerDispatchExecutor}, in chunks of
+ * {@code offer.dispatch.send-batch-size}. Each chunk's stored letters are loaded in parallel on
+ * {@code offerRenderExecutor}, one per core, rendering those not yet stored (see {@link OfferLetterService}), then
+ * mailed over a single SMTP connection. Failures are retried with backoff up to {@code offer.dispatch.max-attempts}.
+ * Delivery is at least once: a node that dies mid-send leaves a claim that is released after
+ * {@code offer.dispatch.claim-timeout-minutes} and sent again.
+ */
+@Slf4j
+@Service
+public class OfferDispatchService {
+
+    // ddl-auto can't declare a partial index. Any duplicates left from before it existed are failed first, keeping
+    // each offer's oldest active row.
+    private static final String RETIRE_DUPLICATE_ACTIVE_SQL =
+            "UPDATE offer_dispatches d SET status = 'FAILED', last_error = 'Duplicate of dispatch ' || keep.id " +
+            "FROM (SELECT offer_id, MIN(id) AS id FROM offer_dispatches WHERE status IN ('PENDING', 'SENDING') " +
+            "GROUP BY offer_id HAVING COUNT(*) > 1) keep " +
+            "WHERE d.offer_id = keep.offer_id AND d.id <> keep.id AND d.status IN ('PENDING', 'SENDING')";
+    private static final String ACTIVE_DISPATCH_INDEX_SQL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS uq_offer_dispatches_active ON offer_dispatches (offer_id) " +
+            "WHERE status IN ('PENDING', 'SENDING')";
+
+    @Autowired
+    private OfferDispatchRepository dispatchRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferBatchRepository offerBatchRepository;
+
+    @Autowired
+    private OfferLetterService offerLetterService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private SmtpTransportPool transportPool;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("offerDispatchExecutor")
+    private ThreadPoolTaskExecutor dispatchExecutor;
+
+    @Autowired
+    @Qualifier("offerRenderExecutor")
+    private ThreadPoolTaskExecutor renderExecutor;
+
+    @Value("${offer.dispatch.send-batch-size:20}")
+    private int sendBatchSize;
+
+    @Value("${offer.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${offer.dispatch.backoff-initial-seconds:30}")
+    private long backoffInitialSeconds;
+
+    @Value("${offer.dispatch.backoff-max-minutes:30}")
+    private long backoffMaxMinutes;
+
+    @Value("${offer.dispatch.claim-timeout-minutes:10}")
+    private long claimTimeoutMinutes;
+
+    private OutboxWorker<OfferDispatch> worker;
+
+    @PostConstruct
+    void init() {
+        worker = new OutboxWorker<>("offer dispatch", dispatchRepository, transactionTemplate, dispatchExecutor,
+                new OutboxWorker.Settings(sendBatchSize, maxAttempts, backoffInitialSeconds, backoffMaxMinutes,
+                        claimTimeoutMinutes),
+                this::deliver);
+        ensureActiveDispatchIndex();
+    }
+
+    private void ensureActiveDispatchIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int retired = jdbcTemplate.update(RETIRE_DUPLICATE_ACTIVE_SQL);
+            if (retired > 0) {
+                log.warn("Failed {} duplicate offer dispatches before indexing active ones", retired);
+            }
+            jdbcTemplate.execute(ACTIVE_DISPATCH_INDEX_SQL);
+        });
+    }
+
+    /**
+     * Queues the offer's letter for delivery. An offer already waiting for delivery isn't queued twice.
+     */
+    public void enqueue(Long offerId) {
+        dispatchRepository.insertIfNoneActive(offerId, null, LocalDateTime.now());
+    }
+
+    /**
+     * Queues many letters for one batch, skipping offers already waiting for delivery.
+     */
+    public void enqueueAll(Collection<Long> offerIds, Long batchId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long offerId : offerIds) {
+            dispatchRepository.insertIfNoneActive(offerId, batchId, now);
+        }
+    }
+
+    public OfferBatchProgress getBatchProgress(Long batchId) {
+        OfferBatch batch = offerBatchRepository.findById(batchId)
+                .orElseThrow(() -> new RuntimeException("Offer batch not found with id: " + batchId));
+
+        OfferBatchProgress progress = new OfferBatchProgress();
+        progress.setBatchId(batch.getId());
+        progress.setCreatedAt(batch.getCreatedAt());
+        progress.setRequested(batch.getRequested());
+        progress.setQueued(batch.getQueued());
+        progress.setSkipped(batch.getSkipped());
+        for (Object[] row : dispatchRepository.countByStatusForBatch(batchId)) {
+            long count = (Long) row[1];
+            switch ((OutboxStatus) row[0]) {
+                case PENDING -> progress.setPending(count);
+                case SENDING -> progress.setSending(count);
+                case SENT -> progress.setSent(count);
+                case FAILED -> progress.setFailed(count);
+            }
+        }
+        progress.setComplete(progress.getPending() == 0 && progress.getSending() == 0);
+        return progress;
+    }
+
+    /**
+     * The offer's most recent delivery, or null if it was never sent.
+     */
+    public OfferDispatch getLatestDispatch(Long offerId) {
+        return dispatchRepository.findFirstByOfferIdOrderByIdDesc(offerId).orElse(null);
+    }
+
+    @Scheduled(fixedDelayString = "${offer.dispatch.poll-interval-ms:1000}")
+    public void poll() {
+        // Without a mail server nothing could be delivered; the rows stay PENDING until one is configured
+        if (!transportPool.isConfigured()) {
+            return;
+        }
+        worker.poll();
+    }
+
+    @Scheduled(fixedDelayString = "${offer.dispatch.reclaim-interval-ms:60000}")
+    public void releaseAbandonedClaims() {
+        worker.releaseAbandonedClaims();
+    }
+
+    private Map<Long, Exception> deliver(List<OfferDispatch> dispatches) {
+        List<Long> offerIds = dispatches.stream().map(OfferDispatch::getOfferId).toList();
+        Map<Long, Offer> offers = offerRepository.findAllById(offerIds).stream()
+                .collect(Collectors.toMap(Offer::getId, Function.identity()));
+
+        Map<Long, Exception> offerFailures = new HashMap<>();
+        Map<Long, byte[]> pdfs = renderAll(offers.values(), offerFailures);
+        List<Offer> rendered = offers.values().stream().filter(offer -> pdfs.containsKey(offer.getId())).toList();
+        if (!rendered.isEmpty()) {
+            offerFailures.putAll(emailService.sendOfferLetters(rendered, pdfs));
+        }
+
+        Map<Long, Exception> failures = new HashMap<>();
+        for (OfferDispatch dispatch : dispatches) {
+            if (!offers.containsKey(dispatch.getOfferId())) {
+                dispatch.markFailed("Offer no longer exists");
+            } else if (offerFailures.containsKey(dispatch.getOfferId())) {
+                failures.put(dispatch.getId(), offerFailures.get(dispatch.getOfferId()));
+            }
+        }
+        return failures;
+    }
+
+    // Loads, or first renders, every letter in parallel; a letter that fails is reported in failures instead
+    private Map<Long, byte[]> renderAll(Collection<Offer> offers, Map<Long, Exception> failures) {
+        Map<Long, CompletableFuture<byte[]>> futures = new LinkedHashMap<>();
+        for (Offer offer : offers) {
+            futures.put(offer.getId(), CompletableFuture.supplyAsync(
+                    () -> readLetter(offer), renderExecutor));
+        }
+
+        Map<Long, byte[]> pdfs = new HashMap<>();
+        futures.forEach((offerId, future) -> {
+            try {
+                pdfs.put(offerId, future.join());
+            } catch (CompletionException e) {
+                failures.put(offerId, e.getCause() instanceof Exception cause ? cause : e);
+            }
+        });
+        return pdfs;
+    }
+
+    private byte[] readLetter(Offer offer) {
+        try {
+            return offerLetterService.read(offer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
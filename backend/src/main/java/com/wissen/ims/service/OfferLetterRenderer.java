@@ -0,0 +1,187 @@
+package com.wissen.ims.service;
+
+import com.openhtmltopdf.extend.FSCacheEx;
+import com.openhtmltopdf.extend.FSCacheValue;
+import com.openhtmltopdf.extend.impl.FSDefaultCacheStore;
+import com.openhtmltopdf.outputdevice.helper.BaseRendererBuilder;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.wissen.ims.model.Intern;
+import com.wissen.ims.model.Offer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Renders offer letters: the Thymeleaf {@code offer_letter} template to HTML, and that HTML to PDF with
+ * openhtmltopdf. Used for previews and downloads as well as for the letters mailed by offer dispatch.
+ * <p>
+ * Everything that is the same for every letter is prepared once at startup: the logo and signature are
+ * encoded to data URIs, the template base URI is resolved, and font metrics are cached across renders.
+ * The parsed template itself is held by Thymeleaf's template cache ({@code spring.thymeleaf.cache}).
+ * A render is then just variable substitution and layout.
+ */
+@Slf4j
+@Component
+public class OfferLetterRenderer {
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy");
+
+    private static final String[] UNITS = { "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight",
+            "Nine", "Ten", "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen",
+            "Nineteen" };
+    private static final String[] TENS = { "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy",
+            "Eighty", "Ninety" };
+
+    // Shared by every render, including the parallel ones on offerRenderExecutor; the store is thread-safe
+    private final FSCacheEx<String, FSCacheValue> fontMetricsCache = new FSDefaultCacheStore();
+
+    private String baseUri;
+    private String logoBase64;
+    private String signatureBase64;
+
+    @PostConstruct
+    void init() {
+        baseUri = Objects.requireNonNull(getClass().getClassLoader().getResource("templates/"),
+                "templates/ not found on the classpath").toExternalForm();
+        logoBase64 = getResourceAsBase64("classpath:images/WissenLogo.jpg", "image/jpeg");
+        signatureBase64 = getResourceAsBase64("classpath:images/Mohan_mummadi_sign_IMS-project.png", "image/png");
+    }
+
+    public byte[] renderPdf(Intern intern, Offer offer, LocalDate letterDate) {
+        try {
+            String htmlContent = renderHtml(intern, offer, letterDate);
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
+            builder.useCacheStore(BaseRendererBuilder.CacheStore.PDF_FONT_METRICS, fontMetricsCache);
+
+            // Resources resolve against the templates directory
+            builder.withHtmlContent(htmlContent, baseUri);
+
+            builder.toStream(outputStream);
+            builder.run();
+
+            byte[] pdfBytes = outputStream.toByteArray();
+
+            if (pdfBytes == null || pdfBytes.length == 0) {
+                throw new IllegalStateException("PDF generation failed: empty output");
+            }
+
+            return pdfBytes;
+        } catch (Exception e) {
+            log.error("Failed to generate offer letter PDF for intern {}", intern.getId(), e);
+            throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
+        }
+    }
+
+    public String renderHtml(Intern intern, Offer offer, LocalDate letterDate) {
+        Context context = new Context();
+
+        String offerDate = letterDate.format(DATE_FORMAT);
+        String startDateStr = offer.getStartDate() != null ? offer.getStartDate().format(DATE_FORMAT) : "To be decided";
+
+        // Calculate end date based on duration
+        String endDateStr = "To be decided";
+        if (offer.getStartDate() != null) {
+            String durationStr = offer.getDuration();
+            int months = 12; // default
+            try {
+                if (durationStr != null) {
+                    months = Integer.parseInt(durationStr.replaceAll("[^0-9]", ""));
+                }
+            } catch (Exception e) {
+                // Keep default 12
+            }
+            endDateStr = offer.getStartDate().plusMonths(months).minusDays(1).format(DATE_FORMAT);
+        }
+
+        context.setVariable("offerDate", offerDate);
+        context.setVariable("internName", intern.getName());
+        context.setVariable("internSalutationName", intern.getName().split(" ")[0]);
+        context.setVariable("internAddress", intern.getAddress() != null ? intern.getAddress() : "");
+        context.setVariable("startDate", startDateStr);
+        context.setVariable("duration", offer.getDuration());
+        context.setVariable("endDate", endDateStr);
+        context.setVariable("stipend", String.format("%,d", offer.getStipend()));
+        context.setVariable("stipendInWords", convertNumberToWords(offer.getStipend()));
+
+        // Images are embedded as Base64 data URIs, encoded once in init()
+        context.setVariable("logoBase64", logoBase64);
+        context.setVariable("signatureBase64", signatureBase64);
+
+        return templateEngine.process("offer_letter", context);
+    }
+
+    /**
+     * Hashes everything {@link #renderHtml} reads from the intern and the offer, so a stored letter can be
+     * reused for as long as the fingerprint stays the same.
+     */
+    public String fingerprint(Intern intern, Offer offer) {
+        String details = String.join("\n", intern.getName(), Objects.toString(intern.getAddress(), ""),
+                Objects.toString(offer.getStartDate(), ""), Objects.toString(offer.getDuration(), ""),
+                Objects.toString(offer.getStipend(), ""));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(details.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A missing image fails startup rather than leaving every letter without its logo or signature
+    private String getResourceAsBase64(String resourcePath, String mimeType) {
+        try {
+            Resource resource = resourceLoader.getResource(resourcePath);
+            byte[] bytes = StreamUtils.copyToByteArray(resource.getInputStream());
+            String base64 = Base64.getEncoder().encodeToString(bytes);
+            return "data:" + mimeType + ";base64," + base64;
+        } catch (IOException e) {
+            throw new IllegalStateException("Offer letter image not found: " + resourcePath, e);
+        }
+    }
+
+    private String convertNumberToWords(long number) {
+        if (number == 0)
+            return "Zero";
+
+        if (number < 20)
+            return UNITS[(int) number];
+        if (number < 100)
+            return TENS[(int) (number / 10)] + (number % 10 != 0 ? " " + UNITS[(int) (number % 10)] : "");
+        if (number < 1000)
+            return UNITS[(int) (number / 100)] + " Hundred"
+                    + (number % 100 != 0 ? " and " + convertNumberToWords(number % 100) : "");
+        if (number < 100000)
+            return convertNumberToWords(number / 1000) + " Thousand"
+                    + (number % 1000 != 0 ? " " + convertNumberToWords(number % 1000) : "");
+        if (number < 10000000)
+            return convertNumberToWords(number / 100000) + " Lakh"
+                    + (number % 100000 != 0 ? " " + convertNumberToWords(number % 100000) : "");
+
+        return String.valueOf(number); // Fallback
+    }
+}
@@ -0,0 +1,144 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.model.Offer;
+import com.wissen.ims.model.OfferLetter;
+import com.wissen.ims.repository.OfferLetterRepository;
+import com.wissen.ims.repository.OfferRepository;
+import com.wissen.ims.storage.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+
+/**
+ * Keeps each offer's letter as a stored PDF, one object per version under {@code offers/letters/<offerId>/}.
+ * Downloads, views and the mailed letter all serve the stored bytes, so the letter an intern receives is the one
+ * HR downloads later. A new version is rendered only once the details printed on it change (see
+ * {@link OfferLetterRenderer#fingerprint}). Every version is recorded in {@code offer_letters}, so the ones it
+ * replaces, including any that were mailed, stay referenced and {@link StorageGarbageCollector} keeps them.
+ */
+@Slf4j
+@Service
+public class OfferLetterService {
+
+    private static final String LETTER_PREFIX = "offers/letters/";
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private OfferLetterRepository offerLetterRepository;
+
+    @Autowired
+    private OfferLetterRenderer offerLetterRenderer;
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Opens the offer's current letter, rendering and storing a new version first if there is none yet or the
+     * offer has changed since.
+     */
+    public Resource open(Offer offer) throws IOException {
+        return objectStorage.get(currentLetter(offer).getLetterPath());
+    }
+
+    public byte[] read(Offer offer) throws IOException {
+        try (InputStream in = open(offer).getInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Renders the letter as HTML without storing anything. While the stored version is still current the preview
+     * carries its date, so it matches the PDF.
+     */
+    public String renderHtml(Offer offer) {
+        LocalDate letterDate = isCurrent(offer) ? offer.getLetterDate() : LocalDate.now();
+        return offerLetterRenderer.renderHtml(offer.getIntern(), offer, letterDate);
+    }
+
+    private boolean isCurrent(Offer offer) {
+        return offer.getLetterPath() != null
+                && offerLetterRenderer.fingerprint(offer.getIntern(), offer).equals(offer.getLetterFingerprint());
+    }
+
+    // Makes sure the offer's letter fields point at a stored letter for its current details
+    private Offer currentLetter(Offer offer) throws IOException {
+        if (isCurrent(offer)) {
+            return offer;
+        }
+
+        String fingerprint = offerLetterRenderer.fingerprint(offer.getIntern(), offer);
+        int version = (offer.getLetterVersion() == null ? 0 : offer.getLetterVersion()) + 1;
+        LocalDate letterDate = LocalDate.now();
+        byte[] pdf = offerLetterRenderer.renderPdf(offer.getIntern(), offer, letterDate);
+        String hash = sha256(pdf);
+        // The hash in the key keeps two concurrent renders of the same version from overwriting each other
+        String key = LETTER_PREFIX + offer.getId() + "/v" + version + "_" + hash.substring(0, 16) + ".pdf";
+        objectStorage.put(key, new ByteArrayInputStream(pdf), "application/pdf");
+
+        Integer updated = transactionTemplate.execute(tx -> {
+            int rows = offerRepository.updateLetter(offer.getId(), version, key, hash, letterDate, fingerprint);
+            if (rows > 0) {
+                offerLetterRepository.save(history(offer.getId(), version, key, hash, letterDate));
+            }
+            return rows;
+        });
+        if (updated == null || updated == 0) {
+            // Another request stored this version first; serve that one so everyone sees the same letter
+            objectStorage.delete(key);
+            OfferRepository.StoredLetter stored = offerRepository.findStoredLetter(offer.getId())
+                    .orElseThrow(() -> new RuntimeException("Offer not found with id: " + offer.getId()));
+            if (stored.getLetterPath() == null) {
+                throw new IllegalStateException("Offer letter for offer " + offer.getId() + " was not stored");
+            }
+            setLetter(offer, stored.getLetterPath(), stored.getLetterHash(), stored.getLetterVersion(),
+                    stored.getLetterDate(), stored.getLetterFingerprint());
+            return offer;
+        }
+
+        setLetter(offer, key, hash, version, letterDate, fingerprint);
+        log.info("Stored offer letter v{} for offer {} ({} bytes)", version, offer.getId(), pdf.length);
+        return offer;
+    }
+
+    private static OfferLetter history(Long offerId, int version, String path, String hash, LocalDate letterDate) {
+        OfferLetter letter = new OfferLetter();
+        letter.setOfferId(offerId);
+        letter.setVersion(version);
+        letter.setPath(path);
+        letter.setHash(hash);
+        letter.setLetterDate(letterDate);
+        return letter;
+    }
+
+    private static void setLetter(Offer offer, String path, String hash, Integer version, LocalDate letterDate,
+                                  String fingerprint) {
+        offer.setLetterPath(path);
+        offer.setLetterHash(hash);
+        offer.setLetterVersion(version);
+        offer.setLetterDate(letterDate);
+        offer.setLetterFingerprint(fingerprint);
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,60 +1,86 @@
 package com.wissen.ims.service;
 
+import com.wissen.ims.dto.OfferBatchProgress;
+import com.wissen.ims.dto.OfferBatchRequest;
+import com.wissen.ims.dto.OfferSummary;
+import com.wissen.ims.dto.PageResponse;
+import com.wissen.ims.event.StatusChangedEvent;
 import com.wissen.ims.model.Intern;
 import com.wissen.ims.model.Offer;
+import com.wissen.ims.model.OfferBatch;
 import com.wissen.ims.repository.InternRepository;
+import com.wissen.ims.repository.OfferBatchRepository;
+import com.wissen.ims.repository.OfferLetterRepository;
 import com.wissen.ims.repository.OfferRepository;
+import com.wissen.ims.storage.InspectedUpload;
+import com.wissen.ims.storage.ObjectStorage;
+import com.wissen.ims.storage.UploadInspector;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.util.Objects;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Base64;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
-import org.springframework.util.StreamUtils;
-import org.thymeleaf.TemplateEngine;
-import org.thymeleaf.context.Context;
-
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OfferService {
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private OfferRepository offerRepository;
 
+    @Autowired
+    private OfferLetterRepository offerLetterRepository;
+
     @Autowired
     private InternRepository internRepository;
 
     @Autowired
-    private EmailService emailService;
+    private OfferLetterService offerLetterService;
 
     @Autowired
-    private TemplateEngine templateEngine;
+    private OfferDispatchService offerDispatchService;
 
     @Autowired
-    private ResourceLoader resourceLoader;
+    private OfferBatchRepository offerBatchRepository;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private UploadInspector uploadInspector;
 
     public List<Offer> getAllOffers() {
         return offerRepository.findAll();
     }
 
+    public PageResponse<OfferSummary> getOffersPage(Pageable pageable) {
+        return PageResponse.of(offerRepository.findSummaries(pageable), OfferSummary::getId);
+    }
+
+    public PageResponse<OfferSummary> getOffersAfter(Long cursor, int size) {
+        return PageResponse.of(offerRepository.findSummariesByIdLessThan(cursor,
+                PageRequest.of(0, size, Sort.by(Sort.Direction.DESC, "id"))), OfferSummary::getId);
+    }
+
     public Offer getOfferById(Long id) {
         return offerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Offer not found with id: " + id));
@@ -72,11 +98,14 @@ public class OfferService {
         if (offer.getStatus() == null) {
             offer.setStatus(Offer.OfferStatus.GENERATED);
         }
-        return offerRepository.save(offer);
+        Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(StatusChangedEvent.created(Offer.class, savedOffer.getStatus()));
+        return savedOffer;
     }
 
     public Offer updateOffer(Long id, Offer offerDetails) {
         Offer offer = getOfferById(id);
+        Offer.OfferStatus previousStatus = offer.getStatus();
 
         offer.setPosition(offerDetails.getPosition());
         offer.setDepartment(offerDetails.getDepartment());
@@ -89,205 +118,196 @@ public class OfferService {
         offer.setStatus(offerDetails.getStatus());
         offer.setGeneratedBy(offerDetails.getGeneratedBy());
 
-        return offerRepository.save(offer);
+        Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Offer.class, previousStatus, savedOffer.getStatus()));
+        return savedOffer;
     }
 
+    /**
+     * Marks the offer sent and queues its letter for delivery in the same transaction; a dispatch worker renders
+     * and mails it shortly after. See {@link OfferDispatchService} for delivery status and retries.
+     */
+    @Transactional
     public Offer sendOffer(Long id) {
         Offer offer = getOfferById(id);
 
-        // Get intern details
-        Intern intern = internRepository.findById(offer.getIntern().getId())
-                .orElseThrow(() -> new RuntimeException("Intern not found"));
-
         // Update offer status
+        Offer.OfferStatus previousStatus = offer.getStatus();
         offer.setStatus(Offer.OfferStatus.SENT);
         offer.setSentAt(LocalDateTime.now());
         Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Offer.class, previousStatus, Offer.OfferStatus.SENT));
 
-        // Send email with offer letter
-        try {
-            // Generate PDF as single source of truth
-            byte[] pdfBytes = generateOfferLetterPDF(intern, savedOffer);
-            emailService.sendOfferLetter(intern, savedOffer, pdfBytes);
-            System.out.println("✅ Offer letter email with PDF sent successfully to: " + intern.getEmail());
-        } catch (Exception e) {
-            System.err.println("❌ FAILED to send offer email to " + intern.getEmail());
-            System.err.println("❌ Error: " + e.getMessage());
-            e.printStackTrace();
+        offerDispatchService.enqueue(savedOffer.getId());
+        return savedOffer;
+    }
+
+    /**
+     * Sends a cohort's offers at once: the listed offers, or the latest offer of every intern matching the
+     * filters, generating one from the request's template for interns who have none. Offers already accepted or
+     * rejected are skipped, as are filtered offers already sent unless the request asks to resend them. Everything is queued in one transaction; the dispatch workers render and mail the
+     * letters, and {@link OfferDispatchService#getBatchProgress} reports how far they have got.
+     */
+    @Transactional
+    public OfferBatchProgress sendOffers(OfferBatchRequest request) {
+        List<Offer> selected = new ArrayList<>();
+        List<Offer> generated = new ArrayList<>();
+        int requested;
+        int skipped = 0;
+
+        if (request.getOfferIds() != null && !request.getOfferIds().isEmpty()) {
+            Set<Long> offerIds = new LinkedHashSet<>(request.getOfferIds());
+            offerIds.remove(null);
+            requested = offerIds.size();
+            selected.addAll(offerRepository.findAllById(offerIds));
+            skipped += requested - selected.size();
+        } else {
+            List<Intern> interns = internRepository.findForOfferBatch(request.getInternStatus(),
+                    request.getCollegeId(), request.getJoinDateFrom(), request.getJoinDateTo());
+            requested = interns.size();
+
+            // The latest offer is the one that counts, as on the intern's own offer page
+            Map<Long, Offer> latestByIntern = offerRepository.findByInternIdIn(
+                            interns.stream().map(Intern::getId).toList()).stream()
+                    .collect(Collectors.toMap(offer -> offer.getIntern().getId(), Function.identity(),
+                            (a, b) -> a.getId() > b.getId() ? a : b));
+            for (Intern intern : interns) {
+                Offer latest = latestByIntern.get(intern.getId());
+                if (latest != null) {
+                    selected.add(latest);
+                } else if (request.getTemplate() != null) {
+                    generated.add(offerFromTemplate(intern, request.getTemplate()));
+                } else {
+                    skipped++;
+                }
+            }
         }
 
-        return savedOffer;
+        if (!generated.isEmpty()) {
+            offerRepository.saveAll(generated);
+            eventPublisher.publishEvent(new StatusChangedEvent(Offer.class, null,
+                    Offer.OfferStatus.GENERATED.name(), generated.size()));
+            selected.addAll(generated);
+        }
+
+        // Filters match whole cohorts, so offers already sent are only mailed again when asked for
+        boolean listed = request.getOfferIds() != null && !request.getOfferIds().isEmpty();
+        Set<Offer.OfferStatus> sendable = listed || request.isResend()
+                ? EnumSet.of(Offer.OfferStatus.GENERATED, Offer.OfferStatus.SENT)
+                : EnumSet.of(Offer.OfferStatus.GENERATED);
+        List<Offer> toSend = selected.stream()
+                .filter(offer -> sendable.contains(offer.getStatus()))
+                .sorted(Comparator.comparing(Offer::getId))
+                .toList();
+        skipped += selected.size() - toSend.size();
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Offer.OfferStatus, Long> previousStatuses = toSend.stream()
+                .collect(Collectors.groupingBy(Offer::getStatus, Collectors.counting()));
+        for (Offer offer : toSend) {
+            offer.setStatus(Offer.OfferStatus.SENT);
+            offer.setSentAt(now);
+        }
+        offerRepository.saveAll(toSend);
+        previousStatuses.forEach((previousStatus, count) -> eventPublisher.publishEvent(new StatusChangedEvent(
+                Offer.class, previousStatus.name(), Offer.OfferStatus.SENT.name(), count)));
+
+        OfferBatch batch = new OfferBatch();
+        batch.setRequested(requested);
+        batch.setQueued(toSend.size());
+        batch.setSkipped(skipped);
+        batch = offerBatchRepository.save(batch);
+
+        offerDispatchService.enqueueAll(toSend.stream().map(Offer::getId).toList(), batch.getId());
+        return offerDispatchService.getBatchProgress(batch.getId());
+    }
+
+    private Offer offerFromTemplate(Intern intern, Offer template) {
+        if (template.getPosition() == null || template.getDepartment() == null || template.getStipend() == null
+                || template.getDuration() == null || template.getStartDate() == null || template.getLocation() == null) {
+            throw new RuntimeException("Offer template needs position, department, stipend, duration, start date and location");
+        }
+        Offer offer = new Offer();
+        offer.setIntern(intern);
+        offer.setPosition(template.getPosition());
+        offer.setDepartment(template.getDepartment());
+        offer.setStipend(template.getStipend());
+        offer.setDuration(template.getDuration());
+        offer.setStartDate(template.getStartDate());
+        offer.setLocation(template.getLocation());
+        offer.setReportingManager(template.getReportingManager());
+        if (template.getWorkMode() != null) {
+            offer.setWorkMode(template.getWorkMode());
+        }
+        offer.setGeneratedBy(template.getGeneratedBy());
+        offer.setStatus(Offer.OfferStatus.GENERATED);
+        return offer;
     }
 
     public Offer acceptOffer(Long id, MultipartFile signedOfferFile) throws IOException {
         Offer offer = getOfferById(id);
 
         if (signedOfferFile != null && !signedOfferFile.isEmpty()) {
-            // Create upload directory if it doesn't exist
-            File uploadDirectory = new File(uploadDir);
-            if (!uploadDirectory.exists()) {
-                uploadDirectory.mkdirs();
+            try (InspectedUpload upload = uploadInspector.inspect(signedOfferFile, UploadInspector.SIGNED_OFFER_TYPES)) {
+                // Generate unique filename for signed offer
+                String key = "offers/signed/signed_offer_" + offer.getId() + "_" + UUID.randomUUID().toString()
+                        + upload.getExtension();
+
+                // Save file
+                objectStorage.put(key, upload.getContent(), upload.getMediaType());
+                offer.setSignedOfferPath(key);
             }
-
-            // Generate unique filename for signed offer
-            String originalFilename = signedOfferFile.getOriginalFilename();
-            String extension = originalFilename != null ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : ".pdf";
-            String filename = "signed_offer_" + offer.getId() + "_" + UUID.randomUUID().toString() + extension;
-
-            // Save file
-            Path filePath = Paths.get(uploadDir, filename);
-            Files.write(filePath, signedOfferFile.getBytes());
-
-            offer.setSignedOfferPath(filePath.toString());
         }
 
+        Offer.OfferStatus previousStatus = offer.getStatus();
         offer.setStatus(Offer.OfferStatus.ACCEPTED);
         offer.setAcceptedAt(LocalDateTime.now());
 
         // Update intern status to ACTIVE
         Intern intern = offer.getIntern();
         if (intern != null) {
+            Intern.InternStatus previousInternStatus = intern.getStatus();
             intern.setStatus(Intern.InternStatus.ACTIVE);
             internRepository.save(intern);
+            eventPublisher.publishEvent(StatusChangedEvent.changed(Intern.class, previousInternStatus,
+                    Intern.InternStatus.ACTIVE));
         }
 
-        return offerRepository.save(offer);
+        Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Offer.class, previousStatus, Offer.OfferStatus.ACCEPTED));
+        return savedOffer;
     }
 
     public Offer rejectOffer(Long id) {
         Offer offer = getOfferById(id);
+        Offer.OfferStatus previousStatus = offer.getStatus();
         offer.setStatus(Offer.OfferStatus.REJECTED);
-        return offerRepository.save(offer);
+        Offer savedOffer = offerRepository.save(offer);
+        eventPublisher.publishEvent(StatusChangedEvent.changed(Offer.class, previousStatus, Offer.OfferStatus.REJECTED));
+        return savedOffer;
     }
 
+    @Transactional
     public void deleteOffer(Long id) {
         Offer offer = getOfferById(id);
         offerRepository.delete(offer);
+        // Its stored letters are left unreferenced for the storage GC
+        offerLetterRepository.deleteByOfferId(id);
+        eventPublisher.publishEvent(StatusChangedEvent.deleted(Offer.class, offer.getStatus()));
     }
 
     public long countByStatus(Offer.OfferStatus status) {
-        return offerRepository.findByStatus(status).size();
-    }
-
-    public byte[] downloadOfferLetter(Long offerId) {
-        Offer offer = getOfferById(offerId);
-        Intern intern = offer.getIntern();
-
-        // Generate offer letter PDF
-        return generateOfferLetterPDF(intern, offer);
-    }
-
-    private byte[] generateOfferLetterPDF(Intern intern, Offer offer) {
-        try {
-            String htmlContent = renderOfferLetterHTML(intern, offer);
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.useFastMode();
-
-            // Set base URI to templates directory for resources
-            String baseUri = Objects.requireNonNull(getClass().getClassLoader().getResource("templates/"))
-                    .toExternalForm();
-            builder.withHtmlContent(htmlContent, baseUri);
-
-            builder.toStream(outputStream);
-            builder.run();
-
-            byte[] pdfBytes = outputStream.toByteArray();
-
-            if (pdfBytes == null || pdfBytes.length == 0) {
-                throw new IllegalStateException("PDF generation failed: empty output");
-            }
-
-            return pdfBytes;
-        } catch (Exception e) {
-            System.err.println("❌ FAILED to generate PDF for intern: " + intern.getName());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to generate PDF: " + e.getMessage(), e);
-        }
+        return offerRepository.countByStatus(status);
     }
 
-    public String renderOfferLetterHTML(Intern intern, Offer offer) {
-        Context context = new Context();
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMMM yyyy");
-        String offerDate = LocalDateTime.now().format(formatter);
-        String startDateStr = offer.getStartDate() != null ? offer.getStartDate().format(formatter) : "To be decided";
-
-        // Calculate end date based on duration
-        String endDateStr = "To be decided";
-        if (offer.getStartDate() != null) {
-            String durationStr = offer.getDuration();
-            int months = 12; // default
-            try {
-                if (durationStr != null) {
-                    months = Integer.parseInt(durationStr.replaceAll("[^0-9]", ""));
-                }
-            } catch (Exception e) {
-                // Keep default 12
-            }
-            // For Wissen specific case in reference: 15 July 2025 to 30 June 2026 for 12
-            // months?
-            // Standard calc:
-            endDateStr = offer.getStartDate().plusMonths(months).minusDays(15).withDayOfMonth(30).format(formatter);
-            // Matching the reference logic roughly: end of month prior to full year?
-            // Actually, let's just use a simple plusMonths and format it.
-            endDateStr = offer.getStartDate().plusMonths(months).minusDays(1).format(formatter);
-        }
-
-        context.setVariable("offerDate", offerDate);
-        context.setVariable("internName", intern.getName());
-        context.setVariable("internSalutationName", intern.getName().split(" ")[0]);
-        context.setVariable("internAddress", intern.getAddress() != null ? intern.getAddress() : "");
-        context.setVariable("startDate", startDateStr);
-        context.setVariable("duration", offer.getDuration());
-        context.setVariable("endDate", endDateStr);
-        context.setVariable("stipend", String.format("%,d", offer.getStipend()));
-        context.setVariable("stipendInWords", convertNumberToWords(offer.getStipend()));
-
-        // Add images as Base64
-        context.setVariable("logoBase64", getResourceAsBase64("classpath:images/WissenLogo.jpg", "image/jpeg"));
-        context.setVariable("signatureBase64",
-                getResourceAsBase64("classpath:images/Mohan_mummadi_sign_IMS-project.png", "image/png"));
-
-        return templateEngine.process("offer_letter", context);
-    }
-
-    private String getResourceAsBase64(String resourcePath, String mimeType) {
-        try {
-            Resource resource = resourceLoader.getResource(resourcePath);
-            byte[] bytes = StreamUtils.copyToByteArray(resource.getInputStream());
-            String base64 = Base64.getEncoder().encodeToString(bytes);
-            return "data:" + mimeType + ";base64," + base64;
-        } catch (IOException e) {
-            System.err.println("❌ Failed to load resource for Base64 encoding: " + resourcePath);
-            return "";
-        }
+    /**
+     * The stored offer letter PDF; it is only rendered again once the details it shows have changed.
+     */
+    public Resource downloadOfferLetter(Offer offer) throws IOException {
+        return offerLetterService.open(offer);
     }
 
-    private String convertNumberToWords(long number) {
-        if (number == 0)
-            return "Zero";
-
-        String[] units = { "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine", "Ten",
-                "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen", "Nineteen" };
-        String[] tens = { "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety" };
-
-        if (number < 20)
-            return units[(int) number];
-        if (number < 100)
-            return tens[(int) (number / 10)] + (number % 10 != 0 ? " " + units[(int) (number % 10)] : "");
-        if (number < 1000)
-            return units[(int) (number / 100)] + " Hundred"
-                    + (number % 100 != 0 ? " and " + convertNumberToWords(number % 100) : "");
-        if (number < 100000)
-            return convertNumberToWords(number / 1000) + " Thousand"
-                    + (number % 1000 != 0 ? " " + convertNumberToWords(number % 1000) : "");
-        if (number < 10000000)
-            return convertNumberToWords(number / 100000) + " Lakh"
-                    + (number % 100000 != 0 ? " " + convertNumberToWords(number % 100000) : "");
-
-        return String.valueOf(number); // Fallback
+    public String renderOfferLetterHTML(Offer offer) {
+        return offerLetterService.renderHtml(offer);
     }
 }
@@ -0,0 +1,159 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.model.OutboxEntry;
+import com.wissen.ims.model.OutboxStatus;
+import com.wissen.ims.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Works through one outbox table for the service that owns it. Each {@link #poll} claims as many due rows as the
+ * executor has room for (SKIP LOCKED, so nodes never claim the same row), marks them SENDING and hands them to the
+ * {@link Delivery} in chunks of at most {@code sendBatchSize}. A failed attempt is retried with exponential backoff
+ * and jitter up to {@code maxAttempts}; {@link #releaseAbandonedClaims} puts back rows left SENDING by a node that
+ * stopped mid-send, so delivery is at least once.
+ */
+@Slf4j
+public class OutboxWorker<T extends OutboxEntry> {
+
+    /**
+     * Delivers one claimed chunk.
+     */
+    @FunctionalInterface
+    public interface Delivery<T> {
+
+        /**
+         * @return why each row that wasn't delivered failed, by row id. A row the delivery has already marked
+         *         failed itself, because retrying can't help, is left as it is; every other row counts as sent.
+         */
+        Map<Long, Exception> deliver(List<T> entries);
+    }
+
+    public record Settings(int sendBatchSize, int maxAttempts, long backoffInitialSeconds, long backoffMaxMinutes,
+                           long claimTimeoutMinutes) {
+    }
+
+    private final String name;
+    private final OutboxRepository<T> repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Settings settings;
+    private final Delivery<T> delivery;
+
+    /**
+     * @param name what a row is, for the logs ("outbox email", say)
+     */
+    public OutboxWorker(String name, OutboxRepository<T> repository, TransactionTemplate transactionTemplate,
+                        ThreadPoolTaskExecutor executor, Settings settings, Delivery<T> delivery) {
+        this.name = name;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.settings = settings;
+        this.delivery = delivery;
+    }
+
+    public void poll() {
+        // Claim no more than the workers can start on, so claimed rows never sit in a local queue
+        int capacity = executor.getMaxPoolSize() - executor.getActiveCount()
+                - executor.getThreadPoolExecutor().getQueue().size();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<Long> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = repository.lockDue(now, capacity * settings.sendBatchSize());
+            if (!ids.isEmpty()) {
+                repository.markClaimed(ids, OutboxStatus.SENDING, now);
+            }
+            return ids;
+        });
+
+        // Spread the claim over the free workers, at most one send batch each
+        int chunkSize = Math.min(settings.sendBatchSize(), Math.max(1, (claimed.size() + capacity - 1) / capacity));
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<Long> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            try {
+                executor.execute(() -> deliver(chunk));
+            } catch (TaskRejectedException e) {
+                // Released at once rather than waiting out the claim timeout
+                release(chunk);
+            }
+        }
+    }
+
+    public void releaseAbandonedClaims() {
+        LocalDateTime now = LocalDateTime.now();
+        Integer released = transactionTemplate.execute(status -> repository.releaseAbandoned(
+                OutboxStatus.SENDING, OutboxStatus.PENDING, now.minusMinutes(settings.claimTimeoutMinutes()), now));
+        if (released != null && released > 0) {
+            log.warn("Released {} {}s abandoned mid-send", released, name);
+        }
+    }
+
+    private void deliver(List<Long> ids) {
+        List<T> entries = repository.findAllById(ids).stream()
+                .filter(entry -> entry.getStatus() == OutboxStatus.SENDING)
+                .toList();
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Exception> failures = delivery.deliver(entries);
+
+        LocalDateTime now = LocalDateTime.now();
+        int sent = 0;
+        for (T entry : entries) {
+            if (entry.getStatus() != OutboxStatus.SENDING) {
+                continue;
+            }
+            Exception failure = failures.get(entry.getId());
+            if (failure == null) {
+                entry.markSent(now);
+                sent++;
+            } else {
+                recordFailure(entry, failure);
+            }
+        }
+        repository.saveAll(entries);
+        log.info("{}: {} of {} sent", name, sent, entries.size());
+    }
+
+    private void recordFailure(T entry, Exception failure) {
+        if (entry.getAttempts() >= settings.maxAttempts()) {
+            entry.markFailed(failure.getMessage());
+            log.error("Giving up on {} {} after {} attempts: {}", name, entry.getId(), entry.getAttempts(),
+                    failure.getMessage());
+        } else {
+            entry.retryAt(LocalDateTime.now().plus(backoff(entry.getAttempts())), failure.getMessage());
+            log.warn("{} {} attempt {} failed, retrying at {}: {}", name, entry.getId(), entry.getAttempts(),
+                    entry.getNextAttemptAt(), failure.getMessage());
+        }
+    }
+
+    private void release(List<Long> ids) {
+        List<T> entries = repository.findAllById(ids);
+        for (T entry : entries) {
+            entry.setStatus(OutboxStatus.PENDING);
+            entry.setAttempts(Math.max(0, entry.getAttempts() - 1));
+        }
+        repository.saveAll(entries);
+    }
+
+    // Doubles per attempt up to the cap, plus up to 20% jitter so a failed batch doesn't retry in lockstep
+    private Duration backoff(int attempts) {
+        long seconds = settings.backoffInitialSeconds() << Math.min(attempts - 1, 20);
+        seconds = Math.min(seconds, settings.backoffMaxMinutes() * 60);
+        long jitter = ThreadLocalRandom.current().nextLong(seconds / 5 + 1);
+        return Duration.ofSeconds(seconds + jitter);
+    }
+}
@@ -0,0 +1,292 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.dto.StorageGcStats;
+import com.wissen.ims.storage.ObjectInfo;
+import com.wissen.ims.storage.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Finds stored files that no document, candidate resume or signed offer points at any more (replaced
+ * resumes, abandoned uploads) and removes them in two steps. An orphan older than
+ * {@code storage.gc.min-age-hours} is first moved to {@code quarantine/<yyyyMMdd>/<key>}. It is deleted once it
+ * has sat there for {@code storage.gc.quarantine-days}, unless a reference to it has appeared meanwhile, in
+ * which case it is moved back.
+ * <p>
+ * The referenced keys are streamed from the database into one set up front. The store is then walked
+ * incrementally, pausing every few hundred objects, so a pass never competes hard with request traffic. Passes
+ * run on {@code storageMaintenanceExecutor}, never on a scheduler or request thread.
+ */
+@Slf4j
+@Service
+public class StorageGarbageCollector {
+
+    private static final String QUARANTINE_PREFIX = "quarantine/";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    // Held for the length of a pass, on a connection of its own, so only one replica collects at a time
+    private static final long GC_LOCK_ID = 7_302_118_001L;
+
+    // kind D: document file (which also owns a preview); A: document archive; R: resume filename; O: signed offer
+    // or any stored version of a generated letter
+    private static final String REFERENCES_SQL =
+            "SELECT 'D' AS kind, file_path AS ref FROM documents WHERE archive_key IS NULL " +
+            "UNION ALL SELECT DISTINCT 'A', archive_key FROM documents WHERE archive_key IS NOT NULL " +
+            "UNION ALL SELECT 'R', resume_url FROM candidates WHERE resume_url IS NOT NULL AND resume_url <> '' " +
+            "UNION ALL SELECT 'O', signed_offer_path FROM offers WHERE signed_offer_path IS NOT NULL " +
+            "UNION ALL SELECT 'O', letter_path FROM offers WHERE letter_path IS NOT NULL " +
+            "UNION ALL SELECT 'O', path FROM offer_letters";
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("storageMaintenanceExecutor")
+    private ThreadPoolTaskExecutor maintenanceExecutor;
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    @Value("${storage.gc.min-age-hours:24}")
+    private long minAgeHours;
+
+    @Value("${storage.gc.quarantine-days:7}")
+    private long quarantineDays;
+
+    @Value("${storage.gc.max-objects-per-run:1000}")
+    private int maxObjectsPerRun;
+
+    @Value("${storage.gc.pause-every:500}")
+    private int pauseEvery;
+
+    @Value("${storage.gc.pause-ms:100}")
+    private long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong totalBytesReclaimed = new AtomicLong();
+    private volatile StorageGcStats lastRun;
+
+    @Scheduled(cron = "${storage.gc.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Starts a pass in the background; {@link #getLastRun} has its stats once it finishes.
+     *
+     * @return false if a pass is already running on this node or the maintenance executor is full
+     */
+    public boolean start() {
+        if (running.get()) {
+            return false;
+        }
+        try {
+            maintenanceExecutor.execute(() -> {
+                try {
+                    run();
+                } catch (RuntimeException e) {
+                    // Already logged by run()
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            log.warn("Storage GC not started: the maintenance executor is full");
+            return false;
+        }
+    }
+
+    /**
+     * Runs one pass on the calling thread. Returns null if a pass is already running, here or on another replica.
+     */
+    public StorageGcStats run() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        // A session-level lock rather than a transaction-level one, so no transaction stays open during the walk
+        try (Connection lockConnection = dataSource.getConnection()) {
+            if (!advisoryLock(lockConnection, "pg_try_advisory_lock")) {
+                log.info("Storage GC skipped: another instance is collecting");
+                return null;
+            }
+            try {
+                return collect();
+            } finally {
+                advisoryLock(lockConnection, "pg_advisory_unlock");
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            log.error("Storage GC failed: {}", e.getMessage(), e);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Storage GC failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, GC_LOCK_ID);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    public StorageGcStats getLastRun() {
+        return lastRun;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private StorageGcStats collect() throws IOException {
+        StorageGcStats stats = new StorageGcStats();
+        stats.setStartedAt(LocalDateTime.now());
+
+        Set<String> referenced = loadReferences();
+        stats.setReferenced(referenced.size());
+
+        purgeQuarantine(referenced, stats);
+        quarantineOrphans(referenced, stats);
+
+        stats.setTotalBytesReclaimed(totalBytesReclaimed.addAndGet(stats.getBytesReclaimed()));
+        stats.setFinishedAt(LocalDateTime.now());
+        lastRun = stats;
+        log.info("Storage GC: {} referenced, {} scanned, {} quarantined ({} bytes), {} restored, {} deleted " +
+                        "({} bytes reclaimed)", stats.getReferenced(), stats.getScanned(), stats.getQuarantined(),
+                stats.getQuarantinedBytes(), stats.getRestored(), stats.getDeleted(), stats.getBytesReclaimed());
+        return stats;
+    }
+
+    private Set<String> loadReferences() {
+        // A cursor over the references rather than one big result set; PostgreSQL only uses one inside a
+        // transaction, so the load runs in a short one of its own
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(1000);
+
+        Set<String> referenced = new HashSet<>();
+        transactionTemplate.executeWithoutResult(status -> streaming.query(REFERENCES_SQL, rs -> {
+            String kind = rs.getString("kind");
+            String ref = rs.getString("ref");
+            if ("R".equals(kind)) {
+                referenced.add("resumes/" + ref);
+            } else {
+                String key = objectStorage.toKey(ref);
+                referenced.add(key);
+                if ("D".equals(kind)) {
+                    referenced.add(ThumbnailService.thumbnailKey(key));
+                }
+            }
+        }));
+        return referenced;
+    }
+
+    private void purgeQuarantine(Set<String> referenced, StorageGcStats stats) throws IOException {
+        LocalDate expiry = LocalDate.now().minusDays(quarantineDays);
+        List<ObjectInfo> quarantined = new ArrayList<>();
+        objectStorage.walk(QUARANTINE_PREFIX, object -> {
+            quarantined.add(object);
+            return quarantined.size() < maxObjectsPerRun;
+        });
+
+        for (ObjectInfo object : quarantined) {
+            String rest = object.getKey().substring(QUARANTINE_PREFIX.length());
+            int slash = rest.indexOf('/');
+            if (slash < 0) {
+                continue;
+            }
+            String originalKey = rest.substring(slash + 1);
+
+            if (referenced.contains(originalKey)) {
+                objectStorage.move(object.getKey(), originalKey);
+                stats.setRestored(stats.getRestored() + 1);
+                log.warn("Restored {} from quarantine: it is referenced again", originalKey);
+            } else if (quarantinedOn(rest.substring(0, slash)).isBefore(expiry)) {
+                objectStorage.delete(object.getKey());
+                stats.setDeleted(stats.getDeleted() + 1);
+                stats.setBytesReclaimed(stats.getBytesReclaimed() + object.getSize());
+            }
+            throttle(stats.getRestored() + stats.getDeleted());
+        }
+    }
+
+    private void quarantineOrphans(Set<String> referenced, StorageGcStats stats) throws IOException {
+        // Young files may belong to an upload whose database row isn't committed yet
+        Instant cutoff = Instant.now().minus(Duration.ofHours(minAgeHours));
+        List<ObjectInfo> orphans = new ArrayList<>();
+        objectStorage.walk("", object -> {
+            if (object.getKey().startsWith(QUARANTINE_PREFIX)) {
+                return true;
+            }
+            stats.setScanned(stats.getScanned() + 1);
+            throttle(stats.getScanned());
+            if (!referenced.contains(object.getKey()) && object.getLastModified().isBefore(cutoff)) {
+                orphans.add(object);
+            }
+            return orphans.size() < maxObjectsPerRun;
+        });
+
+        String quarantineDir = QUARANTINE_PREFIX + LocalDate.now().format(DAY) + "/";
+        for (ObjectInfo orphan : orphans) {
+            objectStorage.move(orphan.getKey(), quarantineDir + orphan.getKey());
+            stats.setQuarantined(stats.getQuarantined() + 1);
+            stats.setQuarantinedBytes(stats.getQuarantinedBytes() + orphan.getSize());
+        }
+    }
+
+    private static LocalDate quarantinedOn(String day) {
+        try {
+            return LocalDate.parse(day, DAY);
+        } catch (DateTimeParseException e) {
+            // Not one of ours; treat it as long expired
+            return LocalDate.MIN;
+        }
+    }
+
+    private void throttle(long count) {
+        if (pauseMs > 0 && pauseEvery > 0 && count % pauseEvery == 0) {
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.storage.ObjectStorage;
+import com.wissen.ims.storage.StorageKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Renders small PNG previews of uploaded documents on the bounded {@code thumbnailExecutor}, once they have passed
+ * their virus scan: the first page of a PDF, or a downscaled copy of a photo. A preview is stored next to its file
+ * at {@code <filePath>.thumb.png}, so documents sharing a deduplicated blob share one preview too.
+ */
+@Slf4j
+@Service
+public class ThumbnailService {
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+    private static final String THUMBNAIL_SUFFIX = ".thumb.png";
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Autowired
+    @Qualifier("thumbnailExecutor")
+    private ThreadPoolTaskExecutor thumbnailExecutor;
+
+    @Value("${thumbnail.width:320}")
+    private int thumbnailWidth;
+
+    /**
+     * Queues a preview for the file unless one exists already. When the queue is full the preview is skipped;
+     * the next request for it queues it again.
+     */
+    public void schedule(String filePath) {
+        if (!canRender(filePath)) {
+            return;
+        }
+        try {
+            thumbnailExecutor.execute(() -> generate(filePath));
+        } catch (TaskRejectedException e) {
+            log.warn("Thumbnail queue is full, skipping preview for {}", filePath);
+        }
+    }
+
+    public boolean canRender(String filePath) {
+        String extension = StorageKeys.extensionOf(filePath);
+        return extension.equals(".pdf") || IMAGE_EXTENSIONS.contains(extension);
+    }
+
+    public Resource getThumbnail(String filePath) {
+        return objectStorage.get(thumbnailKey(filePath));
+    }
+
+    public void deleteThumbnail(String filePath) throws IOException {
+        objectStorage.delete(thumbnailKey(filePath));
+    }
+
+    private void generate(String filePath) {
+        String key = thumbnailKey(filePath);
+        try {
+            if (objectStorage.exists(key)) {
+                return;
+            }
+
+            BufferedImage thumbnail;
+            try (InputStream in = objectStorage.get(filePath).getInputStream()) {
+                thumbnail = StorageKeys.extensionOf(filePath).equals(".pdf") ? renderFirstPage(in) : downscale(in);
+            }
+            if (thumbnail == null) {
+                log.warn("No preview could be rendered for {}", filePath);
+                return;
+            }
+
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(thumbnail, "png", png);
+            objectStorage.put(key, new ByteArrayInputStream(png.toByteArray()), "image/png");
+            log.debug("Stored {} byte preview for {}", png.size(), filePath);
+        } catch (Exception e) {
+            log.warn("Failed to render preview for {}: {}", filePath, e.getMessage());
+        }
+    }
+
+    private BufferedImage renderFirstPage(InputStream in) throws IOException {
+        // Spill to temp files rather than heap, so a large scan can't exhaust memory
+        try (PDDocument pdf = PDDocument.load(in, MemoryUsageSetting.setupTempFileOnly())) {
+            if (pdf.getNumberOfPages() == 0) {
+                return null;
+            }
+            PDPage page = pdf.getPage(0);
+            // Scale 1 renders at 72 dpi, i.e. one pixel per point
+            float scale = thumbnailWidth / page.getCropBox().getWidth();
+            return new PDFRenderer(pdf).renderImage(0, scale, ImageType.RGB);
+        }
+    }
+
+    private BufferedImage downscale(InputStream in) throws IOException {
+        try (ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                // Decode only every n-th pixel of a large photo, instead of the full 12-megapixel frame
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, reader.getWidth(0) / (thumbnailWidth * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return resize(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source) {
+        if (source.getWidth() <= thumbnailWidth) {
+            return source;
+        }
+        int height = Math.max(1, Math.round(source.getHeight() * (thumbnailWidth / (float) source.getWidth())));
+        BufferedImage target = new BufferedImage(thumbnailWidth, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            // Transparent areas of a PNG would otherwise come out black
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, thumbnailWidth, height);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, thumbnailWidth, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    public static String thumbnailKey(String filePath) {
+        return filePath + THUMBNAIL_SUFFIX;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wissen.ims.storage;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * One deflated entry of a zip archive in {@link ObjectStorage}, as a Spring
+ * {@link org.springframework.core.io.Resource}. Reading it fetches only the entry's compressed bytes and inflates
+ * them on the fly, so the archive is never downloaded or unpacked as a whole.
+ */
+public class ArchiveEntryResource extends AbstractResource {
+
+    private final ObjectStorage objectStorage;
+    private final String archiveKey;
+    private final String entryName;
+    private final long dataOffset;
+    private final long compressedSize;
+    private final long size;
+    private final long lastModified;
+
+    public ArchiveEntryResource(ObjectStorage objectStorage, String archiveKey, String entryName, long dataOffset,
+                                long compressedSize, long size, long lastModified) {
+        this.objectStorage = objectStorage;
+        this.archiveKey = archiveKey;
+        this.entryName = entryName;
+        this.dataOffset = dataOffset;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    @Override
+    public boolean exists() {
+        try {
+            return objectStorage.exists(archiveKey);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long contentLength() {
+        return size;
+    }
+
+    @Override
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        // Zip entries are raw deflate data without a zlib header. In that mode the inflater may need one byte past
+        // the end of the data to finish (see Inflater's javadoc), hence the padding byte
+        InputStream compressed = new SequenceInputStream(
+                objectStorage.openRange(archiveKey, dataOffset, compressedSize),
+                new ByteArrayInputStream(new byte[1]));
+        Inflater inflater = new Inflater(true);
+        return new InflaterInputStream(compressed, inflater) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    // A caller-supplied inflater isn't released by InflaterInputStream itself
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+    @Override
+    public String getFilename() {
+        return entryName;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Archive entry [" + entryName + "] in [" + archiveKey + "]";
+    }
+}
@@ -0,0 +1,102 @@
+package com.wissen.ims.storage;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps blobs at {@code blobs/ab/cd/<sha256><ext>} in the configured {@link ObjectStorage}, where {@code ab} and
+ * {@code cd} are the first two byte pairs of the hash, so no single directory grows past a few thousand entries.
+ * <p>
+ * Uploads are streamed to a temporary key while the hash is computed, then moved into place (or discarded if the
+ * blob already exists), so a half-written upload is never visible under its hash. Where a move is a full copy
+ * (S3), the upload is hashed into a local temporary file instead and then written once, to its final key.
+ */
+@Component
+public class ContentAddressedDocumentStore implements DocumentStore {
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    @Autowired
+    private ObjectStorage objectStorage;
+
+    @Override
+    public StoredBlob store(InputStream content, String extension) throws IOException {
+        if (!objectStorage.hasCheapMove()) {
+            return storeFromLocalFile(content, extension);
+        }
+
+        String tmpKey = "blobs/tmp/" + UUID.randomUUID() + ".part";
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = objectStorage.put(tmpKey, in, null);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = blobKey(hash, extension);
+            if (objectStorage.exists(key)) {
+                return new StoredBlob(hash, key, size, true);
+            }
+
+            // A concurrent upload of the same content may land first; the move then replaces identical bytes
+            objectStorage.move(tmpKey, key);
+            return new StoredBlob(hash, key, size, false);
+        } finally {
+            objectStorage.delete(tmpKey);
+        }
+    }
+
+    private StoredBlob storeFromLocalFile(InputStream content, String extension) throws IOException {
+        Path spool = Files.createTempFile("blob-", ".part");
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = blobKey(hash, extension);
+            if (objectStorage.exists(key)) {
+                return new StoredBlob(hash, key, size, true);
+            }
+
+            // put only makes the object visible once complete, and a concurrent upload writes identical bytes
+            try (InputStream in = Files.newInputStream(spool)) {
+                objectStorage.put(key, in, null);
+            }
+            return new StoredBlob(hash, key, size, false);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private String blobKey(String hash, String extension) {
+        // The extension comes from the client's filename, so only a plain ".abc" suffix is kept
+        String suffix = extension != null && SAFE_EXTENSION.matcher(extension).matches()
+                ? extension.toLowerCase(Locale.ROOT) : "";
+        return "blobs/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + suffix;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
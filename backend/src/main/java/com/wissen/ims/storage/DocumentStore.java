@@ -0,0 +1,17 @@
+package com.wissen.ims.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed blob storage for uploaded documents. Identical content is stored once, so a blob may be
+ * shared by many records and is never deleted by them: the storage GC quarantines it once none points at it.
+ */
+public interface DocumentStore {
+
+    /**
+     * Streams {@code content} into the store without buffering it in memory. If a blob with the same
+     * SHA-256 and extension already exists it is reused and nothing new is written.
+     */
+    StoredBlob store(InputStream content, String extension) throws IOException;
+}
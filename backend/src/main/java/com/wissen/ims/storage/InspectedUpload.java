@@ -0,0 +1,25 @@
+package com.wissen.ims.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An upload whose type has been sniffed. {@code content} replays the sniffed bytes followed by the rest of the
+ * file, so it can be streamed to storage as-is; close it when done.
+ */
+@Getter
+@AllArgsConstructor
+public class InspectedUpload implements Closeable {
+    private final String mediaType; // Detected from the file's leading bytes, e.g. "application/pdf"
+    private final String extension; // Canonical extension for mediaType, e.g. ".pdf"
+    private final InputStream content;
+
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+}
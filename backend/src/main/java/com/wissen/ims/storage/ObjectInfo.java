@@ -0,0 +1,14 @@
+package com.wissen.ims.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class ObjectInfo {
+    private String key;
+    private long size;
+    private Instant lastModified;
+}
@@ -0,0 +1,66 @@
+package com.wissen.ims.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Where uploaded files live. Keys are slash-separated paths such as {@code resumes/candidate_42.pdf};
+ * the backend picks one implementation at startup through {@code storage.type}.
+ */
+public interface ObjectStorage {
+
+    /**
+     * Streams {@code content} to {@code key}, replacing any existing object. The object only becomes visible
+     * once it has been written completely.
+     *
+     * @return the number of bytes stored
+     */
+    long put(String key, InputStream content, String contentType) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /**
+     * Returns a handle on the object for streaming it back to a client. The object is not read until the
+     * resource is; a missing object yields a resource whose {@code exists()} is false.
+     */
+    Resource get(String key);
+
+    /**
+     * Opens {@code length} bytes of the object starting at {@code offset}, fetching only that range.
+     */
+    InputStream openRange(String key, long offset, long length) throws IOException;
+
+    /**
+     * Renames {@code fromKey} to {@code toKey}, replacing any object already at {@code toKey}.
+     */
+    void move(String fromKey, String toKey) throws IOException;
+
+    /**
+     * Whether {@link #move} is a cheap rename. Where it is not (S3 copies the whole object), callers should
+     * write objects straight to their final key instead of moving them into place.
+     */
+    default boolean hasCheapMove() {
+        return true;
+    }
+
+    /**
+     * Removes the object at {@code key}. Missing objects are ignored.
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * Visits every object whose key starts with {@code prefix} ("" for all of them). Objects are listed
+     * incrementally, so the walk never holds the whole listing in memory.
+     */
+    void walk(String prefix, ObjectVisitor visitor) throws IOException;
+
+    /**
+     * Turns a stored reference into the key {@link #walk} reports for the same object. References written
+     * before keys existed may be absolute paths; by default a reference already is its key.
+     */
+    default String toKey(String reference) {
+        return reference;
+    }
+}
@@ -0,0 +1,11 @@
+package com.wissen.ims.storage;
+
+import java.io.IOException;
+
+/**
+ * Receives objects one at a time from {@link ObjectStorage#walk}. Return false to stop the walk early.
+ */
+@FunctionalInterface
+public interface ObjectVisitor {
+    boolean visit(ObjectInfo object) throws IOException;
+}
@@ -0,0 +1,89 @@
+package com.wissen.ims.storage;
+
+import org.springframework.core.io.AbstractResource;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An S3 object as a Spring {@link org.springframework.core.io.Resource}. Metadata comes from one HEAD request
+ * made on first use; the body is only fetched when {@link #getInputStream()} is called.
+ */
+class S3ObjectResource extends AbstractResource {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String key;
+
+    private HeadObjectResponse head;
+    private boolean headFetched;
+
+    S3ObjectResource(S3Client s3, String bucket, String key) {
+        this.s3 = s3;
+        this.bucket = bucket;
+        this.key = key;
+    }
+
+    @Override
+    public boolean exists() {
+        return head() != null;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return requireHead().contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return requireHead().lastModified().toEpochMilli();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        try {
+            return s3.getObject(b -> b.bucket(bucket).key(key));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new FileNotFoundException(getDescription() + " does not exist");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String getFilename() {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+
+    @Override
+    public String getDescription() {
+        return "S3 object [s3://" + bucket + "/" + key + "]";
+    }
+
+    private HeadObjectResponse requireHead() throws FileNotFoundException {
+        HeadObjectResponse response = head();
+        if (response == null) {
+            throw new FileNotFoundException(getDescription() + " does not exist");
+        }
+        return response;
+    }
+
+    private HeadObjectResponse head() {
+        if (!headFetched) {
+            try {
+                head = s3.headObject(b -> b.bucket(bucket).key(key));
+            } catch (S3Exception e) {
+                if (e.statusCode() != 404) {
+                    throw e;
+                }
+            }
+            headFetched = true;
+        }
+        return head;
+    }
+}
@@ -0,0 +1,173 @@
+package com.wissen.ims.storage;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps objects in an S3 bucket, so any number of backend replicas can serve any file. Works against AWS or any
+ * S3-compatible service such as MinIO (set {@code storage.s3.endpoint} and keep path-style access on).
+ * <p>
+ * Uploads stream through a single part-sized buffer: anything smaller than one part is a plain PUT, anything
+ * larger becomes a multipart upload, so memory use per upload is bounded by the part size, not the file size.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "storage.type", havingValue = "s3")
+public class S3ObjectStorage implements ObjectStorage, DisposableBean {
+
+    // S3 rejects multipart parts below 5 MB, other than the last one
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final S3Client s3;
+    private final String bucket;
+    private final int partSize;
+
+    public S3ObjectStorage(
+            @Value("${storage.s3.endpoint:}") String endpoint,
+            @Value("${storage.s3.region:us-east-1}") String region,
+            @Value("${storage.s3.bucket}") String bucket,
+            @Value("${storage.s3.access-key:}") String accessKey,
+            @Value("${storage.s3.secret-key:}") String secretKey,
+            @Value("${storage.s3.path-style-access:true}") boolean pathStyleAccess,
+            @Value("${storage.s3.part-size-mb:8}") int partSizeMb) {
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(region))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(pathStyleAccess).build());
+        if (!endpoint.isBlank()) {
+            builder.endpointOverride(URI.create(endpoint));
+        }
+        // Without explicit keys the SDK's default chain applies (environment, instance profile, ...)
+        if (!accessKey.isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)));
+        }
+        this.s3 = builder.build();
+        this.bucket = bucket;
+        this.partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+    }
+
+    @PostConstruct
+    void ensureBucket() {
+        try {
+            s3.headBucket(b -> b.bucket(bucket));
+        } catch (NoSuchBucketException e) {
+            s3.createBucket(b -> b.bucket(bucket));
+            log.info("Created storage bucket {}", bucket);
+        }
+    }
+
+    @Override
+    public long put(String key, InputStream content, String contentType) throws IOException {
+        byte[] buffer = new byte[partSize];
+        int filled = content.readNBytes(buffer, 0, buffer.length);
+        if (filled < buffer.length) {
+            s3.putObject(b -> b.bucket(bucket).key(key).contentType(contentType),
+                    RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled));
+            return filled;
+        }
+        return putMultipart(key, content, contentType, buffer);
+    }
+
+    private long putMultipart(String key, InputStream content, String contentType, byte[] buffer) throws IOException {
+        String uploadId = s3.createMultipartUpload(b -> b.bucket(bucket).key(key).contentType(contentType)).uploadId();
+        try {
+            List<CompletedPart> parts = new ArrayList<>();
+            long size = 0;
+            // The first part is already in the buffer
+            int filled = buffer.length;
+            while (filled > 0) {
+                int partNumber = parts.size() + 1;
+                String eTag = s3.uploadPart(b -> b.bucket(bucket).key(key).uploadId(uploadId).partNumber(partNumber),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, filled), filled)).eTag();
+                parts.add(CompletedPart.builder().partNumber(partNumber).eTag(eTag).build());
+                size += filled;
+                filled = content.readNBytes(buffer, 0, buffer.length);
+            }
+            s3.completeMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(parts)));
+            return size;
+        } catch (IOException | RuntimeException e) {
+            // Otherwise the uploaded parts linger, invisible but billed, until a lifecycle rule clears them
+            s3.abortMultipartUpload(b -> b.bucket(bucket).key(key).uploadId(uploadId));
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            s3.headObject(b -> b.bucket(bucket).key(key));
+            return true;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Resource get(String key) {
+        return new S3ObjectResource(s3, bucket, key);
+    }
+
+    @Override
+    public InputStream openRange(String key, long offset, long length) {
+        // HTTP ranges are inclusive at both ends
+        return s3.getObject(b -> b.bucket(bucket).key(key).range("bytes=" + offset + "-" + (offset + length - 1)));
+    }
+
+    @Override
+    public void move(String fromKey, String toKey) {
+        // S3 has no rename; the copy happens server-side, so the bytes never pass through this node
+        s3.copyObject(b -> b.sourceBucket(bucket).sourceKey(fromKey).destinationBucket(bucket).destinationKey(toKey));
+        delete(fromKey);
+    }
+
+    @Override
+    public boolean hasCheapMove() {
+        return false;
+    }
+
+    @Override
+    public void delete(String key) {
+        s3.deleteObject(b -> b.bucket(bucket).key(key));
+    }
+
+    @Override
+    public void walk(String prefix, ObjectVisitor visitor) throws IOException {
+        // The paginator fetches the next page of up to 1000 keys only as iteration reaches it
+        for (S3Object object : s3.listObjectsV2Paginator(b -> b.bucket(bucket).prefix(prefix)).contents()) {
+            if (!visitor.visit(new ObjectInfo(object.key(), object.size(), object.lastModified()))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        s3.close();
+    }
+}
@@ -0,0 +1,22 @@
+package com.wissen.ims.storage;
+
+import java.util.Locale;
+
+/**
+ * Helpers for the slash-separated keys and paths that documents are stored under.
+ */
+public final class StorageKeys {
+
+    private StorageKeys() {
+    }
+
+    /**
+     * Returns the lower-cased extension of the key's last segment including the dot (e.g. {@code ".pdf"}), or
+     * {@code ""} if it has none. A leading dot, as in {@code .profile}, is not an extension.
+     */
+    public static String extensionOf(String key) {
+        String fileName = key.substring(key.lastIndexOf('/') + 1);
+        int dotIndex = fileName.lastIndexOf('.');
+        return dotIndex > 0 ? fileName.substring(dotIndex).toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,13 @@
+package com.wissen.ims.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredBlob {
+    private String contentHash; // SHA-256, hex encoded
+    private String location;    // Object storage key; what Document.filePath stores
+    private long size;
+    private boolean deduplicated; // True when an identical blob was already stored
+}
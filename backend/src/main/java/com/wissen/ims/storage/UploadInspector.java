@@ -0,0 +1,77 @@
+package com.wissen.ims.storage;
+
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.metadata.TikaCoreProperties;
+import org.apache.tika.mime.MimeTypeException;
+import org.apache.tika.mime.MimeTypes;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Set;
+
+/**
+ * Checks what an upload really is before any of it is stored. The type is detected from the file's first
+ * 8 KB with Tika's magic-byte database (the filename only breaks ties, e.g. between ZIP and DOCX), and the
+ * stored extension is derived from that type rather than trusted from the client's filename.
+ */
+@Component
+public class UploadInspector {
+
+    public static final Set<String> DOCUMENT_TYPES = Set.of(
+            "application/pdf", "image/jpeg", "image/png", "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+
+    public static final Set<String> RESUME_TYPES = Set.of(
+            "application/pdf", "application/msword",
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document");
+
+    public static final Set<String> SIGNED_OFFER_TYPES = Set.of("application/pdf", "image/jpeg", "image/png");
+
+    private static final int SNIFF_BYTES = 8 * 1024;
+
+    private final MimeTypes mimeTypes = MimeTypes.getDefaultMimeTypes();
+
+    /**
+     * Sniffs the upload and returns it ready to stream, or throws {@link UploadRejectedException} if it is
+     * empty or not one of {@code allowedTypes}. Only the sniffed bytes have been read when it throws.
+     */
+    public InspectedUpload inspect(MultipartFile file, Set<String> allowedTypes) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new UploadRejectedException(HttpStatus.BAD_REQUEST, "Please select a file to upload");
+        }
+
+        InputStream in = file.getInputStream();
+        try {
+            byte[] head = in.readNBytes(SNIFF_BYTES);
+            Metadata metadata = new Metadata();
+            if (file.getOriginalFilename() != null) {
+                metadata.set(TikaCoreProperties.RESOURCE_NAME_KEY, file.getOriginalFilename());
+            }
+
+            String mediaType = mimeTypes.detect(new ByteArrayInputStream(head), metadata).getBaseType().toString();
+            if (!allowedTypes.contains(mediaType)) {
+                throw new UploadRejectedException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                        "Unsupported file type: " + mediaType);
+            }
+
+            return new InspectedUpload(mediaType, extensionFor(mediaType),
+                    new SequenceInputStream(new ByteArrayInputStream(head), in));
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private String extensionFor(String mediaType) {
+        try {
+            return mimeTypes.forName(mediaType).getExtension();
+        } catch (MimeTypeException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.wissen.ims.storage;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when an upload is refused before anything is stored; carries the status to answer with.
+ */
+public class UploadRejectedException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    public UploadRejectedException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,107 @@
+package com.wissen.ims.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final Session session = Session.getInstance(new Properties());
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.closeAll();
+        }
+    }
+
+    @Test
+    void reusesConnectionAcrossSends() throws Exception {
+        pool = pool(100);
+
+        assertTrue(pool.send(List.of(message("a@example.com"))).isEmpty());
+        assertTrue(pool.send(List.of(message("b@example.com"))).isEmpty());
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        // A session is only asked for when a new connection is opened
+        verify(mailSender, times(1)).getSession();
+    }
+
+    @Test
+    void retiresConnectionAfterMaxMessages() throws Exception {
+        pool = pool(2);
+
+        assertTrue(pool.send(List.of(message("a@example.com"), message("b@example.com"))).isEmpty());
+        assertTrue(pool.send(List.of(message("c@example.com"))).isEmpty());
+
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        verify(mailSender, times(2)).getSession();
+    }
+
+    @Test
+    void continuesPastRefusedMessage() throws Exception {
+        pool = pool(100);
+        MimeMessage refused = message(null);
+
+        Map<MimeMessage, Exception> failures = pool.send(List.of(
+                message("a@example.com"), refused, message("b@example.com")));
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(SendFailedException.class, failures.get(refused));
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        verify(mailSender, times(1)).getSession();
+    }
+
+    private SmtpTransportPool pool(int maxMessagesPerConnection) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender = spy(sender);
+
+        SmtpTransportPool transportPool = new SmtpTransportPool();
+        ReflectionTestUtils.setField(transportPool, "mailSender", mailSender);
+        ReflectionTestUtils.setField(transportPool, "size", 1);
+        ReflectionTestUtils.setField(transportPool, "maxMessagesPerConnection", maxMessagesPerConnection);
+        ReflectionTestUtils.setField(transportPool, "maxIdleSeconds", 60L);
+        ReflectionTestUtils.setField(transportPool, "ratePerMinute", 0);
+        transportPool.init();
+        return transportPool;
+    }
+
+    // A message with no recipient is refused with a SendFailedException
+    private MimeMessage message(String to) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("noreply@example.com"));
+        if (to != null) {
+            message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress(to));
+        }
+        message.setSubject("Test");
+        message.setText("Hello");
+        return message;
+    }
+}
@@ -0,0 +1,197 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.mail.MailBodyCipher;
+import com.wissen.ims.mail.SmtpTransportPool;
+import com.wissen.ims.model.MailOutboxMessage;
+import com.wissen.ims.model.OutboxStatus;
+import com.wissen.ims.repository.MailOutboxRepository;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MailOutboxServiceTest {
+
+    @Mock
+    private MailOutboxRepository outboxRepository;
+
+    @Mock
+    private SmtpTransportPool transportPool;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ThreadPoolTaskExecutor outboxExecutor;
+
+    @InjectMocks
+    private MailOutboxService mailOutboxService;
+
+    private final Session session = Session.getInstance(new Properties());
+    private MailBodyCipher bodyCipher;
+
+    @BeforeEach
+    void setUp() {
+        bodyCipher = new MailBodyCipher();
+        ReflectionTestUtils.setField(bodyCipher, "encryptionKey", "4k+9SsRP3wTpqfqjnHnsVt00mjsUUr1KFjlcLs2GYPU=");
+        ReflectionTestUtils.invokeMethod(bodyCipher, "init");
+        ReflectionTestUtils.setField(mailOutboxService, "bodyCipher", bodyCipher);
+        ReflectionTestUtils.setField(mailOutboxService, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(mailOutboxService, "sendBatchSize", 50);
+        ReflectionTestUtils.setField(mailOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(mailOutboxService, "backoffInitialSeconds", 30L);
+        ReflectionTestUtils.setField(mailOutboxService, "backoffMaxMinutes", 30L);
+        ReflectionTestUtils.setField(mailOutboxService, "claimTimeoutMinutes", 10L);
+        mailOutboxService.init();
+    }
+
+    @Test
+    void enqueueStoresBodyEncrypted() throws Exception {
+        when(outboxRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        MailOutboxMessage message = mailOutboxService.enqueue("intern@example.com", "Your login",
+                "Password: secret", false);
+
+        assertFalse(message.getBody().contains("secret"));
+        assertEquals("Password: secret", bodyCipher.decrypt(message.getBody()));
+    }
+
+    @Test
+    void failedSendIsRetriedWithBackoff() {
+        MailOutboxMessage message = message(1L, 1);
+        claim(message);
+        sendFails();
+
+        LocalDateTime before = LocalDateTime.now();
+        mailOutboxService.poll();
+
+        assertEquals(OutboxStatus.PENDING, message.getStatus());
+        assertNotNull(message.getLastError());
+        assertNotNull(message.getBody());
+        // 30 seconds for the first retry, plus up to 20% jitter
+        assertFalse(message.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        assertTrue(message.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(37)));
+    }
+
+    @Test
+    void lastFailedAttemptGivesUpAndClearsBody() {
+        MailOutboxMessage message = message(1L, 3);
+        claim(message);
+        sendFails();
+
+        mailOutboxService.poll();
+
+        assertEquals(OutboxStatus.FAILED, message.getStatus());
+        assertNotNull(message.getLastError());
+        assertNull(message.getBody());
+    }
+
+    @Test
+    void sentMessageClearsBody() {
+        MailOutboxMessage message = message(1L, 1);
+        claim(message);
+        when(transportPool.send(anyList())).thenReturn(Map.of());
+
+        mailOutboxService.poll();
+
+        assertEquals(OutboxStatus.SENT, message.getStatus());
+        assertNotNull(message.getSentAt());
+        assertNull(message.getBody());
+        verify(outboxRepository).saveAll(List.of(message));
+    }
+
+    @Test
+    void undecryptableBodyFailsOnlyItsMessage() {
+        MailOutboxMessage unreadable = message(1L, 1);
+        unreadable.setBody("enc:v1:bm90IGEgcmVhbCBjaXBoZXJ0ZXh0");
+        MailOutboxMessage readable = message(2L, 1);
+        claim(unreadable, readable);
+        when(transportPool.send(anyList())).thenReturn(Map.of());
+
+        mailOutboxService.poll();
+
+        assertEquals(OutboxStatus.FAILED, unreadable.getStatus());
+        assertNull(unreadable.getBody());
+        assertEquals(OutboxStatus.SENT, readable.getStatus());
+        verify(transportPool).send(argThat(sent -> sent.size() == 1));
+    }
+
+    @Test
+    void nothingIsClaimedWithoutMailServer() {
+        when(transportPool.isConfigured()).thenReturn(false);
+
+        mailOutboxService.poll();
+
+        verify(outboxRepository, never()).lockDue(any(), anyInt());
+    }
+
+    private MailOutboxMessage message(Long id, int attempts) {
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setId(id);
+        message.setRecipient("intern" + id + "@example.com");
+        message.setSubject("Your login");
+        message.setBody(bodyCipher.encrypt("Password: secret"));
+        message.setStatus(OutboxStatus.SENDING);
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    // Has the poll claim the messages, on their current attempt, with the transaction and worker run inline
+    private void claim(MailOutboxMessage... messages) {
+        List<Long> ids = Arrays.stream(messages).map(MailOutboxMessage::getId).toList();
+
+        ThreadPoolExecutor threadPool = mock(ThreadPoolExecutor.class);
+        when(threadPool.getQueue()).thenReturn(new LinkedBlockingQueue<>());
+        when(outboxExecutor.getThreadPoolExecutor()).thenReturn(threadPool);
+        when(outboxExecutor.getMaxPoolSize()).thenReturn(1);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(outboxExecutor).execute(any(Runnable.class));
+        when(transactionTemplate.execute(any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        when(transportPool.isConfigured()).thenReturn(true);
+        when(transportPool.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(session));
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(ids);
+        when(outboxRepository.findAllById(ids)).thenReturn(List.of(messages));
+    }
+
+    private void sendFails() {
+        when(transportPool.send(anyList())).thenAnswer(invocation -> Map.of(
+                invocation.<List<MimeMessage>>getArgument(0).get(0), new SendFailedException("Mailbox unavailable")));
+    }
+}
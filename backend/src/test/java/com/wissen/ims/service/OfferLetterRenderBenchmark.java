@@ -0,0 +1,95 @@
+package com.wissen.ims.service;
+
+import com.wissen.ims.model.Intern;
+import com.wissen.ims.model.Offer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of offer letter PDF renders with the renderer prepared once, as in production, against preparing
+ * it again for every letter (re-encoding the images, resolving the base URI and starting with an empty font
+ * metrics cache), which is what each render used to do. It is not a unit test and does not run with
+ * {@code mvn test}; run it with
+ * <pre>
+ * mvn -q test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main OfferLetterRenderBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(2)
+public class OfferLetterRenderBenchmark {
+
+    private SpringTemplateEngine templateEngine;
+    private OfferLetterRenderer prepared;
+    private Intern intern;
+    private Offer offer;
+    private LocalDate letterDate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        templateEngine = templateEngine();
+        prepared = renderer(templateEngine);
+
+        intern = new Intern();
+        intern.setId(1L);
+        intern.setName("Asha Verma");
+        intern.setAddress("12 MG Road, Bengaluru");
+        offer = new Offer();
+        offer.setId(1L);
+        offer.setStartDate(LocalDate.of(2026, 7, 15));
+        offer.setDuration("12 months");
+        offer.setStipend(45000);
+        letterDate = LocalDate.of(2026, 6, 1);
+    }
+
+    @Benchmark
+    public byte[] preparedOnce() {
+        return prepared.renderPdf(intern, offer, letterDate);
+    }
+
+    @Benchmark
+    public byte[] preparedPerLetter() {
+        return renderer(templateEngine).renderPdf(intern, offer, letterDate);
+    }
+
+    private static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private static OfferLetterRenderer renderer(SpringTemplateEngine templateEngine) {
+        OfferLetterRenderer renderer = new OfferLetterRenderer();
+        ReflectionTestUtils.setField(renderer, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(renderer, "resourceLoader", new DefaultResourceLoader());
+        renderer.init();
+        return renderer;
+    }
+}
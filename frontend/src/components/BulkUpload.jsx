@@ -7,6 +7,7 @@ const BulkUpload = () => {
   const [file, setFile] = useState(null);
   const [uploading, setUploading] = useState(false);
   const [result, setResult] = useState(null);
+  const [updateExisting, setUpdateExisting] = useState(false);
   const [user, setUser] = useState(JSON.parse(localStorage.getItem('user') || '{}'));
 
   const downloadTemplate = () => {
@@ -57,6 +58,7 @@ const BulkUpload = () => {
       formData.append('file', file);
       formData.append('collegeId', user.collegeId.toString());
       formData.append('collegeName', user.collegeName);
+      formData.append('mode', updateExisting ? 'UPSERT' : 'INSERT');
 
       console.log('Uploading with collegeId:', user.collegeId, 'collegeName:', user.collegeName);
       console.log('FormData entries:', Array.from(formData.entries()));
@@ -98,6 +100,7 @@ const BulkUpload = () => {
                 <li>Required fields: name, email, phone, branch, cgpa</li>
                 <li>Optional fields: graduationYear, emergencyContact, address</li>
                 <li>Upload the completed CSV file</li>
+                <li>To correct candidates uploaded earlier, tick "Update existing candidates" - rows are matched on email</li>
               </ol>
               <button className="btn btn-outline" onClick={downloadTemplate}>
                 Download CSV Template
@@ -122,6 +125,15 @@ const BulkUpload = () => {
                 </label>
               </div>
 
+              <label className="upload-option">
+                <input
+                  type="checkbox"
+                  checked={updateExisting}
+                  onChange={(e) => setUpdateExisting(e.target.checked)}
+                />
+                Update existing candidates
+              </label>
+
               <button
                 className="btn btn-primary"
                 onClick={handleUpload}
@@ -152,6 +164,23 @@ const BulkUpload = () => {
                   </div>
                 </div>
 
+                {result.mode === 'UPSERT' && (
+                  <div className="stats-row">
+                    <div className="stat-card">
+                      <div className="stat-value">{result.insertedCount}</div>
+                      <div className="stat-label">Inserted</div>
+                    </div>
+                    <div className="stat-card">
+                      <div className="stat-value">{result.updatedCount}</div>
+                      <div className="stat-label">Updated</div>
+                    </div>
+                    <div className="stat-card">
+                      <div className="stat-value">{result.unchangedCount}</div>
+                      <div className="stat-label">Unchanged</div>
+                    </div>
+                  </div>
+                )}
+
                 {result.successMessages && result.successMessages.length > 0 && (
                   <div className="messages-section">
                     <h3 className="messages-title success-title">Successful Uploads</h3>
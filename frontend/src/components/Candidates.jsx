@@ -203,6 +203,18 @@ function Candidates() {
     }
   };
 
+  const handleExport = async () => {
+    try {
+      await api.exportCandidates({
+        status: filterStatus === 'ALL' ? '' : filterStatus,
+        term: searchTerm,
+      });
+    } catch (error) {
+      console.error('Error exporting candidates:', error);
+      alert('Failed to export candidates');
+    }
+  };
+
   return (
     <div className="candidates-container">
       <div className="candidates-header">
@@ -240,6 +252,9 @@ function Candidates() {
               Convert {selectedCandidates.length} to Interns
             </button>
           )}
+          <button onClick={handleExport} className="btn-export">
+            Export CSV
+          </button>
           <button onClick={() => setShowForm(!showForm)} className="btn-add">
             {showForm ? 'Cancel' : '+ Add Candidate'}
           </button>
@@ -4,6 +4,39 @@ import api from '../services/api';
 import Toast from './Toast';
 import './Documents.css';
 
+// Loads the document's preview with the auth header (an <img src> can't send one) and shows nothing until it exists
+const DocumentThumbnail = ({ docId, onClick }) => {
+  const [src, setSrc] = useState(null);
+
+  useEffect(() => {
+    let objectUrl = null;
+    let cancelled = false;
+    api.getDocumentThumbnail(docId)
+      .then(blob => {
+        if (blob && !cancelled) {
+          objectUrl = window.URL.createObjectURL(blob);
+          setSrc(objectUrl);
+        }
+      })
+      .catch(() => {});
+    return () => {
+      cancelled = true;
+      if (objectUrl) window.URL.revokeObjectURL(objectUrl);
+    };
+  }, [docId]);
+
+  if (!src) return null;
+  return (
+    <img
+      src={src}
+      alt="Document preview"
+      className="document-thumbnail"
+      onClick={onClick}
+      title="View Document"
+    />
+  );
+};
+
 const Documents = () => {
   const [searchTerm, setSearchTerm] = useState('');
   const [loading, setLoading] = useState(false);
@@ -23,7 +56,7 @@ const Documents = () => {
       setLoading(true);
       setError('');
       console.log('Fetching interns...');
-      const interns = await api.get('/interns');
+      const interns = await api.get('/interns?unpaged=true');
       console.log('Interns received:', interns);
       
       // Fetch documents for each intern
@@ -192,7 +225,8 @@ const Documents = () => {
 
   const handleVerifyAllDocuments = async (internId) => {
     const intern = internsWithDocs.find(i => i.id === internId);
-    const pendingDocs = intern.documents.filter(d => d.status === 'PENDING');
+    // Documents still being virus scanned can't be verified yet
+    const pendingDocs = intern.documents.filter(d => d.status === 'PENDING' && d.scanStatus !== 'SCANNING');
     
     if (pendingDocs.length === 0) {
       setToast({ message: 'No pending documents to verify', type: 'info' });
@@ -202,9 +236,8 @@ const Documents = () => {
     const confirmed = window.confirm(`Verify all ${pendingDocs.length} pending documents for ${intern.name}?`);
     if (confirmed) {
       try {
-        await Promise.all(
-          pendingDocs.map(doc => api.put(`/documents/${doc.id}/verify`))
-        );
+        // One request, so the intern's status is recomputed once instead of racing per document
+        await api.verifyDocuments(pendingDocs.map(doc => doc.id));
         
         setToast({ message: 'All documents verified!', type: 'success' });
         await fetchInternsWithDocuments();
@@ -477,6 +510,7 @@ const Documents = () => {
                                 backgroundColor: '#f9fafb'
                               }}
                             >
+                              <DocumentThumbnail docId={doc.id} onClick={() => handleViewDocument(doc.id)} />
                               <div style={{ flex: 1 }}>
                                 <div style={{ fontWeight: '500', marginBottom: '4px' }}>
                                   {doc.label || doc.name}
@@ -490,6 +524,9 @@ const Documents = () => {
                                   </div>
                                 )}
                               </div>
+                              {doc.scanStatus === 'SCANNING' && (
+                                <span className="badge badge-info">SCANNING</span>
+                              )}
                               <span className={`badge ${getDocumentStatusBadge(doc.status)}`}>
                                 {doc.status}
                               </span>
@@ -508,7 +545,7 @@ const Documents = () => {
                                 >
                                   Download
                                 </button>
-                                {doc.status === 'PENDING' && (
+                                {doc.status === 'PENDING' && doc.scanStatus !== 'SCANNING' && (
                                   <>
                                     <button
                                       className="btn btn-success btn-sm"
@@ -43,7 +43,7 @@ const Interns = () => {
   const fetchInterns = async () => {
     try {
       setLoading(true);
-      const data = await api.get('/interns');
+      const data = await api.get('/interns?unpaged=true');
       setInterns(data);
       setError('');
     } catch (err) {
@@ -144,6 +144,18 @@ const Interns = () => {
     return matchesSearch && matchesFilter;
   });
 
+  const handleExport = async () => {
+    try {
+      await api.exportInterns({
+        status: filterStatus === 'all' ? '' : filterStatus,
+        term: searchTerm,
+      });
+    } catch (error) {
+      console.error('Error exporting interns:', error);
+      alert('Failed to export interns');
+    }
+  };
+
   return (
     <div className="dashboard-container">
       <Sidebar />
@@ -155,7 +167,7 @@ const Interns = () => {
             <p className="page-subtitle">Track and manage all interns throughout the hiring lifecycle</p>
           </div>
           <div className="header-actions">
-            <button className="btn btn-outline">
+            <button className="btn btn-outline" onClick={handleExport}>
               Export Data
             </button>
             <button className="btn btn-primary" onClick={() => setShowModal(true)}>
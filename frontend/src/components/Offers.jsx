@@ -35,7 +35,7 @@ const Offers = () => {
   const fetchInterns = async () => {
     try {
       setLoading(true);
-      const data = await api.get('/interns');
+      const data = await api.get('/interns?unpaged=true');
       setInterns(data);
     } catch (err) {
       console.error('Error fetching interns:', err);
@@ -47,7 +47,7 @@ const Offers = () => {
   const fetchOffers = async () => {
     try {
       console.log('Fetching offers...');
-      const data = await api.get('/offers');
+      const data = await api.get('/offers?unpaged=true');
       console.log('Offers received:', data);
       console.log('Number of offers:', data?.length || 0);
       setOffers(data);
@@ -147,6 +147,26 @@ const Offers = () => {
     }
   };
 
+  const handleSendAllGenerated = async () => {
+    const generatedOffers = offers.filter(o => o.status === 'GENERATED');
+    if (generatedOffers.length === 0) {
+      setToast({ message: 'No generated offers to send', type: 'info' });
+      return;
+    }
+    if (!window.confirm(`Send all ${generatedOffers.length} generated offer letters?`)) {
+      return;
+    }
+
+    try {
+      const batch = await api.sendOffers(generatedOffers.map(o => o.id));
+      setToast({ message: `📨 ${batch.queued} offer letters queued for sending`, type: 'success' });
+      fetchOffers();
+    } catch (error) {
+      console.error('Error sending offers:', error);
+      setToast({ message: 'Failed to send offer letters: ' + error.message, type: 'error' });
+    }
+  };
+
   const getStatusBadge = (status) => {
     const statusMap = {
       'DRAFT': 'badge-secondary',
@@ -187,6 +207,9 @@ const Offers = () => {
             <p className="page-subtitle">Generate and manage intern offer letters</p>
           </div>
           <div className="header-actions">
+            <button className="btn btn-primary" onClick={handleSendAllGenerated}>
+              Send All Generated
+            </button>
             <button className="btn btn-outline">
               Offer Report
             </button>
@@ -153,7 +153,7 @@ class ApiService {
 
   // College APIs
   async getColleges() {
-    return this.get('/colleges');
+    return this.get('/colleges?unpaged=true');
   }
 
   async getCollegeById(id) {
@@ -178,7 +178,7 @@ class ApiService {
 
   // Intern APIs
   async getInterns() {
-    return this.get('/interns');
+    return this.get('/interns?unpaged=true');
   }
 
   async getInternById(id) {
@@ -215,7 +215,7 @@ class ApiService {
 
   // Candidate APIs
   async getCandidates() {
-    return this.get('/candidates');
+    return this.get('/candidates?unpaged=true');
   }
 
   async getCandidateById(id) {
@@ -270,7 +270,24 @@ class ApiService {
   }
 
   async bulkUploadCandidates(formData) {
-    return this.uploadFile('/candidates/bulk-upload', formData);
+    // The import runs as a background job; poll until it finishes and return the final summary
+    const job = await this.uploadFile('/candidates/bulk-upload', formData);
+    let status = job;
+    while (status.state === 'QUEUED' || status.state === 'RUNNING') {
+      await new Promise((resolve) => setTimeout(resolve, 1000));
+      status = await this.getBulkUploadStatus(job.jobId);
+    }
+    const finalStatus = await this.getBulkUploadStatus(job.jobId, 0, 500);
+    return {
+      ...finalStatus,
+      totalRows: finalStatus.rowsProcessed,
+      failureCount: finalStatus.errorCount,
+      successMessages: [],
+    };
+  }
+
+  async getBulkUploadStatus(jobId, errorPage = 0, errorPageSize = 50) {
+    return this.get(`/candidates/bulk-upload/${jobId}?errorPage=${errorPage}&errorPageSize=${errorPageSize}`);
   }
 
   // Candidate Hiring Round APIs
@@ -284,7 +301,7 @@ class ApiService {
 
   // Document APIs
   async getDocuments() {
-    return this.get('/documents');
+    return this.get('/documents?unpaged=true');
   }
 
   async getDocumentsByInternId(internId) {
@@ -312,10 +329,35 @@ class ApiService {
     return this.patch(`/documents/${id}/reject?reason=${encodeURIComponent(reason)}&verifiedBy=${encodeURIComponent(verifiedBy)}`);
   }
 
+  async verifyDocuments(documentIds) {
+    return this.patch('/documents/batch/verify', { documentIds });
+  }
+
+  async rejectDocuments(documentIds, reason) {
+    return this.patch('/documents/batch/reject', { documentIds, reason });
+  }
+
   async deleteDocument(id) {
     return this.delete(`/documents/${id}`);
   }
 
+  // Small PNG preview; resolves to null while the preview is still being rendered
+  async getDocumentThumbnail(id) {
+    const token = this.getAuthToken();
+    const response = await fetch(`${this.baseURL}/documents/${id}/thumbnail`, {
+      method: 'GET',
+      headers: {
+        'Authorization': `Bearer ${token}`
+      },
+    });
+
+    if (!response.ok) {
+      return null;
+    }
+
+    return response.blob();
+  }
+
   getDocumentDownloadUrl(id) {
     const token = this.getAuthToken();
     return `${this.baseURL}/documents/${id}/download?token=${token}`;
@@ -323,7 +365,7 @@ class ApiService {
 
   // Offer APIs
   async getOffers() {
-    return this.get('/offers');
+    return this.get('/offers?unpaged=true');
   }
 
   async getOfferById(id) {
@@ -362,6 +404,15 @@ class ApiService {
     return this.patch(`/offers/${id}/send`);
   }
 
+  // Queues many offers at once; resolves to the batch's progress
+  async sendOffers(offerIds) {
+    return this.post('/offers/batch/send', { offerIds });
+  }
+
+  async getOfferBatch(batchId) {
+    return this.get(`/offers/batch/${batchId}`);
+  }
+
   async acceptOffer(id) {
     return this.patch(`/offers/${id}/accept`);
   }
@@ -382,6 +433,49 @@ class ApiService {
     return this.handleResponse(response);
   }
 
+  // Exports stream from the server as CSV; filters are optional ({ status, collegeId, term })
+  async exportCandidates(filters = {}) {
+    return this.downloadExport('/candidates/export', filters, 'candidates.csv');
+  }
+
+  async exportInterns(filters = {}) {
+    return this.downloadExport('/interns/export', filters, 'interns.csv');
+  }
+
+  async downloadExport(endpoint, filters, fallbackName) {
+    const params = new URLSearchParams();
+    Object.entries(filters).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params.append(key, value);
+      }
+    });
+    const query = params.toString();
+
+    const response = await fetch(`${this.baseURL}${endpoint}${query ? `?${query}` : ''}`, {
+      headers: {
+        'Authorization': `Bearer ${this.getAuthToken()}`
+      }
+    });
+    if (!response.ok) {
+      throw new Error(`Export failed with status: ${response.status}`);
+    }
+
+    const contentDisposition = response.headers.get('Content-Disposition');
+    const filenameMatch = contentDisposition && contentDisposition.match(/filename="(.+)"/i);
+    const blob = await response.blob();
+
+    const url = window.URL.createObjectURL(blob);
+    const a = document.createElement('a');
+    a.href = url;
+    a.download = filenameMatch ? filenameMatch[1] : fallbackName;
+    document.body.appendChild(a);
+    a.click();
+    setTimeout(() => {
+      window.URL.revokeObjectURL(url);
+      document.body.removeChild(a);
+    }, 100);
+  }
+
   getOfferDownloadUrl(id) {
     return `${this.baseURL}/offers/${id}/download`;
   }
@@ -453,7 +547,7 @@ class ApiService {
 
   // Hiring Round APIs
   async getHiringRounds() {
-    return this.get('/hiring-rounds');
+    return this.get('/hiring-rounds?unpaged=true');
   }
 
   async getHiringRoundById(id) {